@@ -11,6 +11,9 @@ public enum Direction {
     L(0, -1),
     UL(1, -1);
 
+    //every direction except N, shared so hot loops do not copy values()
+    public static final Direction[] STEPS = {U, UR, R, DR, D, DL, L, UL};
+
     public final int x;
     public final int y;
 
@@ -0,0 +1,48 @@
+package Game.Engine;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.PieceSquareTables;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+public final class Evaluation {
+
+    //indexed by PieceType ordinal, used for exchanges and move ordering
+    private static final int[] PIECE_VALUES = {0, 100, 500, 320, 330, 900, 0};
+    private static final int FREE_PASSED_PAWN_ENDGAME = 15; //passed pawn whose next square is empty
+
+    private Evaluation() {
+    }
+
+    public static int pieceValue(PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    //for callers outside a search, which have no pawn table to reuse
+    public static int evaluate(BoardState state) {
+        return evaluate(state, new PawnTable(1));
+    }
+
+    //score in centipawns from the point of view of the side to move, the board keeps the middlegame and endgame
+    //sums up to date and the pawn table the pawn structure, so this mostly blends them by the material left
+    public static int evaluate(BoardState state, PawnTable pawnTable) {
+        int pawns = pawnTable.probe(state);
+        long empty = ~state.getOccupancy();
+        int middlegame = state.getMiddlegameScore() + pawnTable.middlegame(pawns)
+                + kingShield(state, pawnTable, pawns, PieceColor.WHITE)
+                - kingShield(state, pawnTable, pawns, PieceColor.BLACK);
+        int endgame = state.getEndgameScore() + pawnTable.endgame(pawns) + FREE_PASSED_PAWN_ENDGAME
+                * (Bitboard.count((pawnTable.passedPawns(pawns, PieceColor.WHITE) << 8) & empty)
+                - Bitboard.count((pawnTable.passedPawns(pawns, PieceColor.BLACK) >>> 8) & empty));
+
+        int phase = Math.min(state.getGamePhase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return state.getCurrentTurn() == PieceColor.WHITE ? score : -score;
+    }
+
+    private static int kingShield(BoardState state, PawnTable pawnTable, int pawns, PieceColor color) {
+        int kingSquare = state.getKingSquare(color);
+        return kingSquare == BoardState.NO_SQUARE ? 0 : pawnTable.shield(pawns, color, Bitboard.file(kingSquare));
+    }
+}
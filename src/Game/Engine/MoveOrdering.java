@@ -0,0 +1,110 @@
+package Game.Engine;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Orders moves in tiers: the hash move, then captures and promotions by most valuable victim / least valuable
+ * attacker, then the two killer moves of the ply, then quiet moves by their history score. Moves are picked
+ * lazily, so a cutoff on an early move skips sorting the rest of the list.
+ */
+final class MoveOrdering {
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int HISTORY_LIMIT = 1 << 20; //history is halved when a score reaches this
+    private static final int KILLER_SLOTS = 2;
+    //indexed by PieceType ordinal, cheapest piece first
+    private static final int[] VALUE_RANK = {0, 1, 4, 2, 3, 5, 6};
+
+    private final int[][] scores = new int[Search.MAX_PLY][Move.MAX_LEGAL_MOVES];
+    private final int[][] killers = new int[Search.MAX_PLY][KILLER_SLOTS];
+    //by color to move, then origin and destination square
+    private final int[][] history = new int[PieceColor.values().length][Bitboard.SQUARE_COUNT * Bitboard.SQUARE_COUNT];
+
+    //killers only make sense for the tree they came from, history is kept at half weight
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        ageHistory();
+    }
+
+    void scoreMoves(BoardState board, int[] moves, int moveCount, int ply, int hashMove) {
+        int[] plyScores = scores[ply];
+        int[] colorHistory = history[board.getCurrentTurn().ordinal()];
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                plyScores[i] = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                plyScores[i] = CAPTURE_SCORE + mvvLva(board, move);
+            } else if (move == killers[ply][0]) {
+                plyScores[i] = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                plyScores[i] = KILLER_SCORE;
+            } else {
+                plyScores[i] = colorHistory[butterflyIndex(move)];
+            }
+        }
+    }
+
+    //moves the best scored of the remaining moves to index and returns it
+    int pickNext(int[] moves, int index, int moveCount, int ply) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moveCount; i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = plyScores[best];
+        plyScores[best] = plyScores[index];
+        plyScores[index] = score;
+        return move;
+    }
+
+    //called when a quiet move causes a beta cutoff
+    void recordCutoff(BoardState board, int move, int ply, int depth) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] colorHistory = history[board.getCurrentTurn().ordinal()];
+        int index = butterflyIndex(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    static boolean isQuiet(int move) {
+        return !Move.isCapture(move) && !Move.isPromotion(move);
+    }
+
+    private static int mvvLva(BoardState board, int move) {
+        PieceType victim = Move.kind(move) == Move.KIND_EN_PASSANT ? PieceType.PAWN : board.getPieceType(Move.to(move));
+        int score = VALUE_RANK[victim.ordinal()] * 8 - VALUE_RANK[board.getPieceType(Move.from(move)).ordinal()];
+        return Move.isPromotion(move) ? score + VALUE_RANK[Move.promotionType(move).ordinal()] * 8 : score;
+    }
+
+    private static int butterflyIndex(int move) {
+        return Move.from(move) * Bitboard.SQUARE_COUNT + Move.to(move);
+    }
+
+    private void ageHistory() {
+        for (int[] colorHistory : history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package Game.Engine;
+
+import Game.GameRules.BoardState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Lazy SMP: every worker runs a full iterative deepening search of the same root on its own copy of the
+ * position, and they only cooperate through the shared transposition table. Every helper skips its own pattern
+ * of depths so the threads spread over different iterations. The calling thread runs worker 0, whose limits
+ * and listener govern the search; the helpers are stopped once it returns. A node limit is shared out evenly.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    private final Search[] workers;
+    private final TranspositionTable table;
+    private final ExecutorService helperThreads;
+    private final List<Future<SearchResult>> helperResults = new ArrayList<>();
+
+    public ParallelSearch(BoardState position, TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread, got " + threads);
+        }
+        this.table = table;
+        workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(position, table);
+            workers[i].configureAsWorker(i);
+        }
+        helperThreads = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    //workers, their threads and their move ordering and pawn tables are kept, only the root is replaced
+    public void setPosition(BoardState position) {
+        for (Search worker : workers) {
+            worker.setPosition(position);
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    //the listener sees the main worker's iterations with the node count of all workers
+    public void setListener(SearchListener listener) {
+        workers[0].setListener(listener == null ? null : result -> listener.onIteration(
+                new SearchResult(result.depth(), result.score(), totalNodes(), totalQuiescenceNodes(),
+                        result.cutoffs(), result.firstMoveCutoffs(), result.nanos(), result.principalVariation())));
+    }
+
+    public void stop() {
+        for (Search worker : workers) {
+            worker.stop();
+        }
+    }
+
+    //only the main worker runs on a clock
+    public void ponderhit(SearchLimits limits) {
+        workers[0].ponderhit(limits);
+    }
+
+    public SearchResult search(SearchLimits limits) {
+        long start = System.nanoTime();
+        table.newSearch();
+        long nodeShare = limits.nodes() == SearchLimits.NO_LIMIT ? SearchLimits.NO_LIMIT
+                : Math.max((limits.nodes() + workers.length - 1) / workers.length, 1);
+        SearchLimits mainLimits = limits.withNodes(nodeShare);
+        SearchLimits helperLimits = limits.withoutTime().withNodes(nodeShare);
+        helperResults.clear();
+        for (int i = 1; i < workers.length; i++) {
+            Search helper = workers[i];
+            helperResults.add(helperThreads.submit(() -> helper.search(helperLimits)));
+        }
+
+        SearchResult best = workers[0].search(mainLimits);
+        long nodes = best.nodes();
+        long quiescenceNodes = best.quiescenceNodes();
+        long cutoffs = best.cutoffs();
+        long firstMoveCutoffs = best.firstMoveCutoffs();
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].stop();
+        }
+        for (int i = 1; i < workers.length; i++) {
+            SearchResult result = join(helperResults.get(i - 1));
+            workers[i].clearStop(); //the helper may have finished on its own before it was stopped
+            nodes += result.nodes();
+            quiescenceNodes += result.quiescenceNodes();
+            cutoffs += result.cutoffs();
+            firstMoveCutoffs += result.firstMoveCutoffs();
+            //a helper that finished a deeper iteration has seen more, ties keep the main worker's line
+            if (result.depth() > best.depth() && result.principalVariation().length > 0) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.depth(), best.score(), nodes, quiescenceNodes, cutoffs, firstMoveCutoffs,
+                System.nanoTime() - start, best.principalVariation());
+    }
+
+    @Override
+    public void close() {
+        if (helperThreads != null) {
+            stop();
+            helperThreads.shutdownNow();
+        }
+    }
+
+    private long totalNodes() {
+        long nodes = 0;
+        for (Search worker : workers) {
+            nodes += worker.getNodes();
+        }
+        return nodes;
+    }
+
+    private long totalQuiescenceNodes() {
+        long nodes = 0;
+        for (Search worker : workers) {
+            nodes += worker.getQuiescenceNodes();
+        }
+        return nodes;
+    }
+
+    private static SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a search helper", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+}
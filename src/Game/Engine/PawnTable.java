@@ -0,0 +1,187 @@
+package Game.Engine;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.LeaperAttacks;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Cache of pawn structure terms keyed by BoardState's pawn-only Zobrist key. Each entry holds the doubled,
+ * isolated, backward and passed pawn scores, the passed pawn masks and the pawn shield each color would have
+ * with its king on every file, so the king's position does not have to be part of the key. Pawn moves are
+ * rare in the tree, so most probes hit. Not thread safe, every search owns its own table.
+ */
+public final class PawnTable {
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -15;
+    private static final int ISOLATED_ENDGAME = -10;
+    private static final int BACKWARD_MIDDLEGAME = -10;
+    private static final int BACKWARD_ENDGAME = -10;
+    //indexed by the rank counted from the pawn's own side
+    private static final int[] PASSED_MIDDLEGAME = {0, 0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 0, 10, 20, 35, 60, 100, 150, 0};
+    private static final int SHIELD_SECOND_RANK = 10;
+    private static final int SHIELD_THIRD_RANK = 5;
+    private static final PieceColor[] COLORS = {PieceColor.WHITE, PieceColor.BLACK};
+
+    private static final long[] FILES = new long[Bitboard.BOARD_SIZE + 2]; //padded so file 0 and 9 are empty
+    private static final long[][] PASSED_MASKS = new long[COLORS.length][Bitboard.SQUARE_COUNT];
+    private static final long[][] SUPPORT_MASKS = new long[COLORS.length][Bitboard.SQUARE_COUNT];
+
+    static {
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            FILES[Bitboard.file(square)] |= Bitboard.bit(square);
+        }
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int file = Bitboard.file(square);
+            long neighbourFiles = FILES[file - 1] | FILES[file + 1];
+            for (int other = 0; other < Bitboard.SQUARE_COUNT; other++) {
+                int rankDifference = Bitboard.rank(other) - Bitboard.rank(square);
+                long bit = Bitboard.bit(other);
+                if (((FILES[file] | neighbourFiles) & bit) != 0) {
+                    PASSED_MASKS[0][square] |= rankDifference > 0 ? bit : 0;
+                    PASSED_MASKS[1][square] |= rankDifference < 0 ? bit : 0;
+                }
+                if ((neighbourFiles & bit) != 0) {
+                    SUPPORT_MASKS[0][square] |= rankDifference <= 0 ? bit : 0;
+                    SUPPORT_MASKS[1][square] |= rankDifference >= 0 ? bit : 0;
+                }
+            }
+        }
+    }
+
+    private final long[] keys;
+    private final int[] middlegame;
+    private final int[] endgame;
+    private final long[] passedPawns; //two per entry, white then black
+    private final byte[] shields; //sixteen per entry, by color then king file
+    private final int indexMask;
+    private long probes;
+    private long hits;
+
+    public PawnTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    //the entry count is rounded down to a power of two
+    public PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        middlegame = new int[size];
+        endgame = new int[size];
+        passedPawns = new long[size * COLORS.length];
+        shields = new byte[size * COLORS.length * Bitboard.BOARD_SIZE];
+        indexMask = size - 1;
+    }
+
+    //returns the entry for the position's pawns, evaluating them first on a miss. An empty slot holds the
+    //all-zero terms of a board without pawns, which is exactly what key zero stands for.
+    public int probe(BoardState state) {
+        long key = state.getPawnKey();
+        int entry = (int) key & indexMask;
+        probes++;
+        if (keys[entry] == key) {
+            hits++;
+            return entry;
+        }
+        keys[entry] = key;
+        evaluate(state, entry);
+        return entry;
+    }
+
+    //white's pawn score minus black's
+    public int middlegame(int entry) {
+        return middlegame[entry];
+    }
+
+    public int endgame(int entry) {
+        return endgame[entry];
+    }
+
+    public long passedPawns(int entry, PieceColor color) {
+        return passedPawns[entry * COLORS.length + colorIndex(color)];
+    }
+
+    //middlegame bonus for the pawns in front of a king standing on the file
+    public int shield(int entry, PieceColor color, int kingFile) {
+        return shields[(entry * COLORS.length + colorIndex(color)) * Bitboard.BOARD_SIZE + kingFile - 1];
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public double hitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    public void resetStatistics() {
+        probes = 0;
+        hits = 0;
+    }
+
+    private void evaluate(BoardState state, int entry) {
+        int middlegameScore = 0;
+        int endgameScore = 0;
+        for (PieceColor color : COLORS) {
+            int us = colorIndex(color);
+            int sign = color == PieceColor.WHITE ? 1 : -1;
+            long own = state.getBitboard(PieceType.PAWN, color);
+            long enemy = state.getBitboard(PieceType.PAWN, color.getOppositeColor());
+            long passed = Bitboard.EMPTY;
+
+            for (int file = 1; file <= Bitboard.BOARD_SIZE; file++) {
+                int extraPawns = Math.max(Bitboard.count(own & FILES[file]) - 1, 0);
+                middlegameScore += sign * extraPawns * DOUBLED_MIDDLEGAME;
+                endgameScore += sign * extraPawns * DOUBLED_ENDGAME;
+            }
+            for (long pawns = own; pawns != Bitboard.EMPTY; pawns = Bitboard.withoutFirstSquare(pawns)) {
+                int square = Bitboard.firstSquare(pawns);
+                int file = Bitboard.file(square);
+                int relativeRank = color == PieceColor.WHITE ? Bitboard.rank(square) : 9 - Bitboard.rank(square);
+                if ((own & (FILES[file - 1] | FILES[file + 1])) == 0) {
+                    middlegameScore += sign * ISOLATED_MIDDLEGAME;
+                    endgameScore += sign * ISOLATED_ENDGAME;
+                } else if ((own & SUPPORT_MASKS[us][square]) == 0) {
+                    //no neighbour can come up to defend it and an enemy pawn already guards the square ahead
+                    int stop = color == PieceColor.WHITE ? square + 8 : square - 8;
+                    if ((LeaperAttacks.pawnAttacks(stop, color) & enemy) != 0) {
+                        middlegameScore += sign * BACKWARD_MIDDLEGAME;
+                        endgameScore += sign * BACKWARD_ENDGAME;
+                    }
+                }
+                if ((enemy & PASSED_MASKS[us][square]) == 0) {
+                    passed |= Bitboard.bit(square);
+                    middlegameScore += sign * PASSED_MIDDLEGAME[relativeRank];
+                    endgameScore += sign * PASSED_ENDGAME[relativeRank];
+                }
+            }
+            passedPawns[entry * COLORS.length + us] = passed;
+
+            int secondRank = color == PieceColor.WHITE ? 2 : 7;
+            int thirdRank = color == PieceColor.WHITE ? 3 : 6;
+            for (int kingFile = 1; kingFile <= Bitboard.BOARD_SIZE; kingFile++) {
+                int shield = 0;
+                for (int file = Math.max(kingFile - 1, 1); file <= Math.min(kingFile + 1, Bitboard.BOARD_SIZE); file++) {
+                    if (Bitboard.contains(own, Bitboard.square(secondRank, file))) {
+                        shield += SHIELD_SECOND_RANK;
+                    } else if (Bitboard.contains(own, Bitboard.square(thirdRank, file))) {
+                        shield += SHIELD_THIRD_RANK;
+                    }
+                }
+                shields[(entry * COLORS.length + us) * Bitboard.BOARD_SIZE + kingFile - 1] = (byte) shield;
+            }
+        }
+        middlegame[entry] = middlegameScore;
+        endgame[entry] = endgameScore;
+    }
+
+    private static int colorIndex(PieceColor color) {
+        return color == PieceColor.WHITE ? 0 : 1;
+    }
+}
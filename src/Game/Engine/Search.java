@@ -0,0 +1,332 @@
+package Game.Engine;
+
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+
+/*
+ * Iterative deepening negamax with alpha-beta pruning. Leaves are resolved by a quiescence search over captures
+ * and promotions so the score is never taken in the middle of an exchange. All buffers are sized up front, the
+ * search itself only makes and unmakes moves on its own copy of the position.
+ */
+public class Search {
+
+    public static final int MAX_PLY = 128;
+    public static final int MATE = 30_000;
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+    private static final int INFINITY = MATE + 1;
+    private static final int DRAW = 0;
+    private static final int FIFTY_MOVE_PLIES = 100;
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final BoardState board;
+    private final TranspositionTable table;
+    private final int[][] moveBuffers = new int[MAX_PLY][Move.MAX_LEGAL_MOVES];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final StaticExchange exchange = new StaticExchange();
+    private final MoveOrdering ordering = new MoveOrdering();
+    private final PawnTable pawnTable = new PawnTable();
+    private final SearchController controller = new SearchController();
+    private SearchListener listener;
+    private volatile boolean stopRequested;
+    private volatile SearchLimits ponderhitLimits;
+    //lazy SMP helpers skip the depths where (depth + skipPhase) / skipSize is odd, the main worker skips none
+    private int skipSize;
+    private int skipPhase;
+    private boolean managesTable = true;
+
+    private long nodes;
+    private long quiescenceNodes;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private int iterations;
+    private boolean aborted;
+    private int[] searchMoves;
+
+    public Search(BoardState position) {
+        this(position, new TranspositionTable(DEFAULT_HASH_MEGABYTES));
+    }
+
+    public Search(BoardState position, TranspositionTable table) {
+        board = new BoardState(position);
+        this.table = table;
+    }
+
+    //the next search starts from this position, a stop or ponderhit sent for an earlier search is dropped
+    public void setPosition(BoardState position) {
+        board.copyFrom(position);
+        clearStop();
+    }
+
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    //may be called from another thread, ends the running search (or the next one if none is running)
+    //with the last completed iteration
+    public void stop() {
+        stopRequested = true;
+    }
+
+    //may be called from another thread, the running ponder search (or the next one) keeps going under the
+    //clock of these limits, counted from now
+    public void ponderhit(SearchLimits limits) {
+        ponderhitLimits = limits;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getQuiescenceNodes() {
+        return quiescenceNodes;
+    }
+
+    //share of evaluations whose pawn structure was already cached, kept across searches
+    public double getPawnHashHitRate() {
+        return pawnTable.hitRate();
+    }
+
+    void clearStop() {
+        stopRequested = false;
+        ponderhitLimits = null;
+    }
+
+    //used by ParallelSearch, which ages the shared table once for all of its workers
+    void configureAsWorker(int workerIndex) {
+        managesTable = false;
+        if (workerIndex == 0) {
+            return;
+        }
+        //helper n takes the n-th of the patterns ordered by size, a size s pattern has 2s phases, so every
+        //helper runs a different sequence of depths
+        int slot = workerIndex - 1;
+        int size = 1;
+        while (slot >= 2 * size) {
+            slot -= 2 * size;
+            size++;
+        }
+        skipSize = size;
+        skipPhase = slot;
+    }
+
+    public SearchResult search(SearchLimits limits) {
+        controller.start(limits, board.getCurrentTurn());
+        searchMoves = limits.searchMoves();
+        nodes = 0;
+        quiescenceNodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        aborted = false;
+        ordering.newSearch();
+        if (managesTable) {
+            table.newSearch();
+        }
+
+        SearchResult result = new SearchResult(0, Evaluation.evaluate(board, pawnTable), 0, 0, 0, 0, 0, new int[0]);
+        iterations = 0;
+        for (int depth = 1; depth <= controller.getMaxDepth(); depth++) {
+            if (skipSize > 0 && ((depth + skipPhase) / skipSize & 1) == 1) {
+                continue;
+            }
+            iterations++;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if (aborted) {
+                break;
+            }
+            int[] principalVariation = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, principalVariation, 0, pvLength[0]);
+            result = new SearchResult(depth, score, nodes, quiescenceNodes, cutoffs, firstMoveCutoffs,
+                    controller.getElapsedNanos(), principalVariation);
+            if (listener != null) {
+                listener.onIteration(result);
+            }
+            if (principalVariation.length == 0 || Math.abs(score) >= MATE_BOUND
+                    || !controller.shouldStartNextIteration(result.bestMove())) {
+                break;
+            }
+        }
+        clearStop();
+        return new SearchResult(result.depth(), result.score(), nodes, quiescenceNodes, cutoffs, firstMoveCutoffs,
+                controller.getElapsedNanos(), result.principalVariation());
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta);
+        }
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            aborted = true;
+            return DRAW;
+        }
+        nodes++;
+        if (ply > 0 && (board.getHalfmoveClock() >= FIFTY_MOVE_PLIES || board.isRepetition())) {
+            return DRAW;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluation.evaluate(board, pawnTable);
+        }
+
+        long key = board.getZobristKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int moveCount = MoveGenerator.generateLegalMoves(board, moves, 0);
+        if (moveCount == 0) {
+            return MoveGenerator.isInCheck(board, board.getCurrentTurn()) ? -MATE + ply : DRAW;
+        }
+        if (ply == 0 && searchMoves.length > 0) {
+            moveCount = restrictToSearchMoves(moves, moveCount);
+        }
+        ordering.scoreMoves(board, moves, moveCount, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moveCount; i++) {
+            int move = ordering.pickNext(moves, i, moveCount, ply);
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                return DRAW;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (i == 0) {
+                            firstMoveCutoffs++;
+                        }
+                        if (MoveOrdering.isQuiet(move)) {
+                            ordering.recordCutoff(board, move, ply, depth);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    //only captures and promotions are searched, captures that lose material by exchange are skipped, and the
+    //side to move may stand pat on the static evaluation. A side in check may not: every evasion is searched
+    //and having none is mate. The principal variation ends at the leaf.
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            aborted = true;
+            return DRAW;
+        }
+        nodes++;
+        quiescenceNodes++;
+        if (ply == MAX_PLY - 1) {
+            return Evaluation.evaluate(board, pawnTable);
+        }
+        boolean inCheck = MoveGenerator.isInCheck(board, board.getCurrentTurn());
+        if (!inCheck) {
+            int standPat = Evaluation.evaluate(board, pawnTable);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            alpha = Math.max(alpha, standPat);
+        }
+
+        int[] moves = moveBuffers[ply];
+        int moveCount = MoveGenerator.generateLegalMoves(board, moves, 0);
+        if (inCheck && moveCount == 0) {
+            return -MATE + ply;
+        }
+        ordering.scoreMoves(board, moves, moveCount, ply, Move.NONE);
+        for (int i = 0; i < moveCount; i++) {
+            int move = ordering.pickNext(moves, i, moveCount, ply);
+            if (!inCheck) {
+                if (MoveOrdering.isQuiet(move)) {
+                    break; //captures and promotions are ordered ahead of every quiet move
+                }
+                if (Move.isCapture(move) && exchange.evaluate(board, move) < 0) {
+                    continue;
+                }
+            }
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) {
+                return DRAW;
+            }
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    //mate scores are stored relative to the node so they stay correct when reached at another ply
+    private static int scoreToTable(int score, int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+
+    private void updatePrincipalVariation(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    //keeps the root moves named in the limits, or all of them when none of those is legal here
+    private int restrictToSearchMoves(int[] moves, int moveCount) {
+        int kept = 0;
+        for (int i = 0; i < moveCount; i++) {
+            for (int searchMove : searchMoves) {
+                if (moves[i] == searchMove) {
+                    moves[kept++] = moves[i];
+                    break;
+                }
+            }
+        }
+        return kept == 0 ? moveCount : kept;
+    }
+
+    private boolean shouldStop() {
+        SearchLimits ponderhit = ponderhitLimits;
+        if (ponderhit != null) {
+            ponderhitLimits = null;
+            controller.startClock(ponderhit);
+        }
+        //the first iteration always completes so there is a move to play
+        if (iterations == 1) {
+            return false;
+        }
+        return stopRequested || controller.isHardLimitReached(nodes);
+    }
+}
@@ -0,0 +1,105 @@
+package Game.Engine;
+
+import Game.Pieces.PieceInfo.PieceColor;
+
+/*
+ * Decides when a search stops. The hard budget aborts the running iteration and is checked against the clock
+ * only every CLOCK_CHECK_INTERVAL nodes; the soft budget is checked between iterations and shrinks while the
+ * best move stays the same, so a stable search hands back time for later moves. A ponder search starts
+ * without a clock and gets one on ponderhit.
+ */
+public final class SearchController {
+
+    public static final int CLOCK_CHECK_INTERVAL = 1024; //nodes between clock reads, a power of two
+    static final long MOVE_OVERHEAD_MILLIS = 30; //kept back for communication and scheduling delays
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final int HARD_BUDGET_FACTOR = 4; //how far past its share a single unstable move may run
+    private static final int MAX_CLOCK_SHARE = 3; //never plan to use more than a third of the remaining time
+    //soft budget scale in percent by the number of iterations the best move has survived
+    private static final int[] STABILITY_SCALE = {150, 110, 90, 75, 60, 50};
+    //a new iteration usually takes longer than all the previous ones together, so one started past this share
+    //of the soft budget would rarely finish
+    private static final int NEXT_ITERATION_PERCENT = 60;
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private int maxDepth;
+    private long nodeLimit;
+    private PieceColor sideToMove;
+    private long startNanos;
+    private long clockStartNanos;
+    private long softNanos;
+    private long hardDeadline;
+    private int bestMove;
+    private int stableIterations;
+
+    public void start(SearchLimits limits, PieceColor sideToMove) {
+        startNanos = System.nanoTime();
+        maxDepth = limits.depth() == SearchLimits.NO_LIMIT ? Search.MAX_PLY - 1
+                : Math.min(limits.depth(), Search.MAX_PLY - 1);
+        if (limits.mateMoves() != SearchLimits.NO_LIMIT) {
+            //a mate in n is n moves and n-1 replies, the quiescence search sees the mated side has no evasion
+            maxDepth = Math.min(maxDepth, 2 * limits.mateMoves() - 1);
+        }
+        nodeLimit = limits.nodes() == SearchLimits.NO_LIMIT ? Long.MAX_VALUE : limits.nodes();
+        this.sideToMove = sideToMove;
+        bestMove = 0;
+        stableIterations = 0;
+        startClock(limits);
+    }
+
+    //sets the time budgets from the limits' clock fields, counted from now
+    public void startClock(SearchLimits limits) {
+        clockStartNanos = System.nanoTime();
+        softNanos = UNLIMITED;
+        hardDeadline = UNLIMITED;
+        if (limits.timeMillis() != SearchLimits.NO_LIMIT) {
+            hardDeadline = clockStartNanos + limits.timeMillis() * 1_000_000; //a fixed move time is used up in full
+        } else if (limits.hasClock()) {
+            boolean white = sideToMove == PieceColor.WHITE;
+            long remaining = Math.max((white ? limits.whiteTimeMillis() : limits.blackTimeMillis())
+                    - MOVE_OVERHEAD_MILLIS, 1);
+            long increment = white ? limits.whiteIncrementMillis() : limits.blackIncrementMillis();
+            int movesToGo = limits.movesToGo() == SearchLimits.NO_LIMIT ? DEFAULT_MOVES_TO_GO
+                    : Math.min(limits.movesToGo(), DEFAULT_MOVES_TO_GO);
+            long hardMillis = Math.min(remaining / MAX_CLOCK_SHARE + increment, remaining);
+            long softMillis = Math.min(remaining / movesToGo + increment * 3 / 4, hardMillis);
+            hardMillis = Math.min(softMillis * HARD_BUDGET_FACTOR, hardMillis);
+            softNanos = softMillis * 1_000_000;
+            hardDeadline = clockStartNanos + hardMillis * 1_000_000;
+        }
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    //Long.MAX_VALUE when the search has no soft budget
+    public long getSoftBudgetMillis() {
+        return softNanos == UNLIMITED ? UNLIMITED : softNanos / 1_000_000;
+    }
+
+    public long getHardBudgetMillis() {
+        return hardDeadline == UNLIMITED ? UNLIMITED : (hardDeadline - clockStartNanos) / 1_000_000;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    //called on every node, the clock is only read every CLOCK_CHECK_INTERVAL nodes
+    public boolean isHardLimitReached(long nodes) {
+        return nodes >= nodeLimit
+                || ((nodes & (CLOCK_CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= hardDeadline);
+    }
+
+    //called after each completed iteration with its best move
+    public boolean shouldStartNextIteration(int iterationBestMove) {
+        stableIterations = iterationBestMove == bestMove ? stableIterations + 1 : 0;
+        bestMove = iterationBestMove;
+        if (softNanos == UNLIMITED) {
+            return true;
+        }
+        long budget = softNanos / 100 * STABILITY_SCALE[Math.min(stableIterations, STABILITY_SCALE.length - 1)];
+        return System.nanoTime() - clockStartNanos < budget / 100 * NEXT_ITERATION_PERCENT;
+    }
+}
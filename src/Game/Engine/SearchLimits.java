@@ -0,0 +1,63 @@
+package Game.Engine;
+
+//a limit of NO_LIMIT is ignored, the search stops at whichever of the others is reached first. timeMillis is a
+//fixed time for this move, the clock fields are the remaining time, increment and moves to the next time control.
+//mateMoves looks for a mate in that many moves, searchMoves restricts the root to those moves (empty for all)
+public record SearchLimits(int depth, long nodes, long timeMillis, long whiteTimeMillis, long blackTimeMillis,
+                           long whiteIncrementMillis, long blackIncrementMillis, int movesToGo, int mateMoves,
+                           int[] searchMoves) {
+
+    public static final int NO_LIMIT = 0;
+    private static final int[] ALL_MOVES = new int[0];
+
+    public SearchLimits(int depth, long nodes, long timeMillis) {
+        this(depth, nodes, timeMillis, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, ALL_MOVES);
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, NO_LIMIT, NO_LIMIT);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(NO_LIMIT, nodes, NO_LIMIT);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(NO_LIMIT, NO_LIMIT, timeMillis);
+    }
+
+    public static SearchLimits clock(long whiteTimeMillis, long blackTimeMillis, long whiteIncrementMillis,
+                                     long blackIncrementMillis, int movesToGo) {
+        return new SearchLimits(NO_LIMIT, NO_LIMIT, NO_LIMIT, whiteTimeMillis, blackTimeMillis,
+                whiteIncrementMillis, blackIncrementMillis, movesToGo, NO_LIMIT, ALL_MOVES);
+    }
+
+    public static SearchLimits mate(int mateMoves) {
+        return new SearchLimits(NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT,
+                mateMoves, ALL_MOVES);
+    }
+
+    public static SearchLimits infinite() {
+        return new SearchLimits(NO_LIMIT, NO_LIMIT, NO_LIMIT);
+    }
+
+    public SearchLimits withNodes(long nodeLimit) {
+        return new SearchLimits(depth, nodeLimit, timeMillis, whiteTimeMillis, blackTimeMillis,
+                whiteIncrementMillis, blackIncrementMillis, movesToGo, mateMoves, searchMoves);
+    }
+
+    public SearchLimits withSearchMoves(int... moves) {
+        return new SearchLimits(depth, nodes, timeMillis, whiteTimeMillis, blackTimeMillis,
+                whiteIncrementMillis, blackIncrementMillis, movesToGo, mateMoves, moves);
+    }
+
+    //the same search with no time limit, as run by helpers and while pondering
+    public SearchLimits withoutTime() {
+        return new SearchLimits(depth, nodes, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT, NO_LIMIT,
+                mateMoves, searchMoves);
+    }
+
+    public boolean hasClock() {
+        return whiteTimeMillis != NO_LIMIT || blackTimeMillis != NO_LIMIT;
+    }
+}
@@ -0,0 +1,5 @@
+package Game.Engine;
+
+public interface SearchListener {
+    void onIteration(SearchResult result);
+}
@@ -0,0 +1,56 @@
+package Game.Engine;
+
+import Game.GameRules.Move;
+
+//nodes counts every visited node, quiescenceNodes the part of them spent in the quiescence search,
+//cutoffs the beta cutoffs of the main search and firstMoveCutoffs those caused by the first move searched
+public record SearchResult(int depth, int score, long nodes, long quiescenceNodes, long cutoffs,
+                           long firstMoveCutoffs, long nanos, int[] principalVariation) {
+
+    public int bestMove() {
+        return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+    }
+
+    public long nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    //the branching factor of a uniform tree of this depth with the same node count
+    public double effectiveBranchingFactor() {
+        return depth == 0 ? 0 : Math.pow(nodes, 1.0 / depth);
+    }
+
+    public double firstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE_BOUND;
+    }
+
+    //moves until mate, negative when the side to move is getting mated
+    public int mateInMoves() {
+        int plies = Search.MATE - Math.abs(score);
+        return (score > 0 ? 1 : -1) * (plies + 1) / 2;
+    }
+
+    public String principalVariationString() {
+        StringBuilder builder = new StringBuilder();
+        for (int move : principalVariation) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(Move.toString(move));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + (isMateScore() ? "mate " + mateInMoves() : "cp " + score)
+                + " nodes " + nodes + " qnodes " + quiescenceNodes
+                + String.format(" ebf %.2f firstcut %.1f%%", effectiveBranchingFactor(), 100 * firstMoveCutoffRate())
+                + " nps " + nodesPerSecond() + " time " + nanos / 1_000_000
+                + " pv " + principalVariationString();
+    }
+}
@@ -0,0 +1,77 @@
+package Game.Engine;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Static exchange evaluation: the material balance of a capture sequence on one square where both sides
+ * recapture with their least valuable piece and may stop whenever continuing would lose material. Sliders
+ * behind a capturing piece join in because attackers are recomputed against the shrinking occupancy.
+ * Pins are ignored. Each instance keeps its own gain buffer, so use one per search thread.
+ */
+public final class StaticExchange {
+
+    private static final int KING_VALUE = 20_000;
+    private static final PieceType[] BY_VALUE = {PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP,
+            PieceType.ROOK, PieceType.QUEEN, PieceType.KING};
+
+    private final int[] gains = new int[Bitboard.SQUARE_COUNT / 2 + 1]; //at most 32 pieces can take part
+
+    //material won by the side to move when playing the move, negative for a losing capture
+    public int evaluate(BoardState state, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        PieceColor side = state.getPieceColor(from);
+        long occupancy = state.getOccupancy() & ~Bitboard.bit(from);
+        int nextVictim = value(state.getPieceType(from));
+
+        if (Move.kind(move) == Move.KIND_EN_PASSANT) {
+            gains[0] = Evaluation.pieceValue(PieceType.PAWN);
+            occupancy &= ~Bitboard.bit(to + (side == PieceColor.WHITE ? -8 : 8));
+        } else {
+            gains[0] = value(state.getPieceType(to));
+        }
+        if (Move.isPromotion(move)) {
+            int promoted = Evaluation.pieceValue(Move.promotionType(move));
+            gains[0] += promoted - Evaluation.pieceValue(PieceType.PAWN);
+            nextVictim = promoted;
+        }
+
+        int depth = 0;
+        while (true) {
+            side = side.getOppositeColor();
+            long attackers = MoveGenerator.attackersTo(state, to, side, occupancy) & occupancy;
+            if (attackers == Bitboard.EMPTY) {
+                break;
+            }
+            PieceType attacker = leastValuable(state, attackers, side);
+            depth++;
+            gains[depth] = nextVictim - gains[depth - 1];
+            occupancy &= ~Bitboard.bit(Bitboard.firstSquare(attackers & state.getBitboard(attacker, side)));
+            nextVictim = value(attacker);
+        }
+        //each side either recaptures or stops, whichever leaves it better off
+        while (depth > 0) {
+            depth--;
+            gains[depth] = -Math.max(-gains[depth], gains[depth + 1]);
+        }
+        return gains[0];
+    }
+
+    private static PieceType leastValuable(BoardState state, long attackers, PieceColor side) {
+        for (PieceType type : BY_VALUE) {
+            if ((attackers & state.getBitboard(type, side)) != Bitboard.EMPTY) {
+                return type;
+            }
+        }
+        return PieceType.NONE;
+    }
+
+    private static int value(PieceType type) {
+        return type == PieceType.KING ? KING_VALUE : Evaluation.pieceValue(type);
+    }
+}
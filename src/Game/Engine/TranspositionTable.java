@@ -0,0 +1,202 @@
+package Game.Engine;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * Shared hash table of search results, kept off-heap in direct buffers so it adds nothing to the GC heap.
+ * Entries are two longs: the packed data and the position key XORed with that data. Threads read and write
+ * without locks; an entry torn by a concurrent write fails the XOR check and is treated as a miss.
+ * Direct memory is capped by -XX:MaxDirectMemorySize, which defaults to the maximum heap size, so a table of
+ * several gigabytes needs that flag raised to match, e.g. -XX:MaxDirectMemorySize=9g for 8 GB.
+ *
+ * Data layout: bits 0-19 move, 20-35 score, 36-43 depth, 44-45 bound, 46-51 generation.
+ */
+public final class TranspositionTable {
+
+    public static final long MISS = 0L;
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES; //one cache line
+    private static final int BUCKET_SHIFT = 6;
+    private static final int CHUNK_BUCKET_BITS = 24; //1 GB per buffer, direct buffers are limited to 2 GB
+    private static final int MOVE_MASK = 0xFFFFF;
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int GENERATION_SHIFT = 46;
+    private static final int GENERATION_MASK = 0x3F;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int HASHFULL_SAMPLE_BUCKETS = 250;
+
+    private ByteBuffer[] chunks;
+    private long bucketMask;
+    private int generation;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    //the size is rounded down to a power of two number of buckets, existing entries are dropped. When the memory
+    //cannot be reserved the previous size is tried and then halves of it; returns the size in megabytes
+    public int resize(int megabytes) {
+        int previous = chunks == null ? megabytes : getMegabytes();
+        chunks = null; //the old table is released first, so its memory can be reserved again
+        for (int size = megabytes; ; size = Math.min(size / 2, previous)) {
+            try {
+                allocate(size);
+                return getMegabytes();
+            } catch (OutOfMemoryError e) {
+                if (size <= 1) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    //the largest power of two size in megabytes that fits the JVM's direct memory limit
+    public static int maxMegabytes() {
+        long limit = Runtime.getRuntime().maxMemory();
+        try {
+            HotSpotDiagnosticMXBean vm = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            long configured = Long.parseLong(vm.getVMOption("MaxDirectMemorySize").getValue());
+            if (configured > 0) {
+                limit = configured;
+            }
+        } catch (RuntimeException e) { //not a HotSpot VM, the limit defaults to the heap size
+        }
+        return (int) Math.min(Long.highestOneBit(Math.max(limit >> 20, 1)), Integer.MAX_VALUE);
+    }
+
+    private void allocate(int megabytes) {
+        long bytes = Math.max(1L, megabytes) << 20;
+        long buckets = Long.highestOneBit(bytes / BUCKET_BYTES);
+        long chunkBuckets = Math.min(buckets, 1L << CHUNK_BUCKET_BITS);
+        ByteBuffer[] newChunks = new ByteBuffer[(int) (buckets / chunkBuckets)];
+        for (int i = 0; i < newChunks.length; i++) {
+            newChunks[i] = ByteBuffer.allocateDirect((int) (chunkBuckets * BUCKET_BYTES)).order(ByteOrder.nativeOrder());
+        }
+        chunks = newChunks;
+        bucketMask = buckets - 1;
+        generation = 0;
+    }
+
+    public void clear() {
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += Long.BYTES) {
+                chunk.putLong(offset, 0L);
+            }
+        }
+        generation = 0;
+    }
+
+    //called once per search so entries from earlier searches are replaced first
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public int getMegabytes() {
+        return (int) ((bucketMask + 1) * BUCKET_BYTES >> 20);
+    }
+
+    public long getEntryCount() {
+        return (bucketMask + 1) * BUCKET_ENTRIES;
+    }
+
+    //returns the packed data for the key, or MISS
+    public long probe(long key) {
+        ByteBuffer chunk = chunk(key);
+        int bucket = bucketOffset(key & bucketMask);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = bucket + i * ENTRY_BYTES;
+            long data = chunk.getLong(offset + Long.BYTES);
+            if ((chunk.getLong(offset) ^ data) == key && data != MISS) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        ByteBuffer chunk = chunk(key);
+        int bucket = bucketOffset(key & bucketMask);
+        int replaceOffset = bucket;
+        int replaceWorth = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = bucket + i * ENTRY_BYTES;
+            long data = chunk.getLong(offset + Long.BYTES);
+            if ((chunk.getLong(offset) ^ data) == key) {
+                if (move == 0) {
+                    move = move(data); //keep the known best move when storing a bound without one
+                }
+                replaceOffset = offset;
+                break;
+            }
+            //shallow entries from old searches are the cheapest to lose
+            int age = (generation - generation(data)) & GENERATION_MASK;
+            int worth = data == MISS ? Integer.MIN_VALUE : depth(data) - 8 * age;
+            if (worth < replaceWorth) {
+                replaceWorth = worth;
+                replaceOffset = offset;
+            }
+        }
+        long data = (move & MOVE_MASK)
+                | (long) (score & 0xFFFF) << SCORE_SHIFT
+                | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) generation << GENERATION_SHIFT;
+        chunk.putLong(replaceOffset, key ^ data);
+        chunk.putLong(replaceOffset + Long.BYTES, data);
+    }
+
+    //permille of sampled entries written during the current search
+    public int hashfull() {
+        int used = 0;
+        long sampleBuckets = Math.min(HASHFULL_SAMPLE_BUCKETS, bucketMask + 1);
+        for (long bucket = 0; bucket < sampleBuckets; bucket++) {
+            ByteBuffer chunk = chunks[(int) (bucket >>> CHUNK_BUCKET_BITS)];
+            for (int i = 0; i < BUCKET_ENTRIES; i++) {
+                long data = chunk.getLong(bucketOffset(bucket) + i * ENTRY_BYTES + Long.BYTES);
+                if (data != MISS && generation(data) == generation) {
+                    used++;
+                }
+            }
+        }
+        return (int) (used * 1000L / (sampleBuckets * BUCKET_ENTRIES));
+    }
+
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private ByteBuffer chunk(long key) {
+        return chunks[(int) ((key & bucketMask) >>> CHUNK_BUCKET_BITS)];
+    }
+
+    private static int bucketOffset(long bucket) {
+        return (int) (bucket & ((1L << CHUNK_BUCKET_BITS) - 1)) << BUCKET_SHIFT;
+    }
+}
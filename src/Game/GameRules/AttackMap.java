@@ -0,0 +1,94 @@
+package Game.GameRules;
+
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+import java.util.Arrays;
+
+/*
+ * Attacked squares and attacker counts per color. After a move only the pieces on changed squares and the
+ * sliders whose rays crossed one of them are recomputed, every other piece keeps its stored attack set.
+ */
+final class AttackMap {
+
+    private static final int NO_COLOR = -1;
+
+    private final long[] attacksFrom = new long[Bitboard.SQUARE_COUNT]; //attack set of the piece on each square
+    private final int[] attackerColors = new int[Bitboard.SQUARE_COUNT];
+    private final int[][] attackerCounts = new int[PieceColor.values().length][Bitboard.SQUARE_COUNT];
+    private final long[] attackedSquares = new long[PieceColor.values().length];
+
+    AttackMap() {
+        Arrays.fill(attackerColors, NO_COLOR);
+    }
+
+    //changedSquares holds every square whose contents differ from the state the map was last updated for
+    void update(BoardState state, long changedSquares) {
+        long affected = changedSquares;
+        long sliders = state.getBitboard(PieceType.BISHOP, PieceColor.WHITE) | state.getBitboard(PieceType.BISHOP, PieceColor.BLACK)
+                | state.getBitboard(PieceType.ROOK, PieceColor.WHITE) | state.getBitboard(PieceType.ROOK, PieceColor.BLACK)
+                | state.getBitboard(PieceType.QUEEN, PieceColor.WHITE) | state.getBitboard(PieceType.QUEEN, PieceColor.BLACK);
+        for (sliders &= ~changedSquares; sliders != Bitboard.EMPTY; sliders = Bitboard.withoutFirstSquare(sliders)) {
+            int square = Bitboard.firstSquare(sliders);
+            if ((attacksFrom[square] & changedSquares) != 0) {
+                affected |= Bitboard.bit(square);
+            }
+        }
+        for (long squares = affected; squares != Bitboard.EMPTY; squares = Bitboard.withoutFirstSquare(squares)) {
+            int square = Bitboard.firstSquare(squares);
+            removeAttacks(square);
+            if (Bitboard.contains(state.getOccupancy(), square)) {
+                addAttacks(state, square);
+            }
+        }
+    }
+
+    boolean isAttacked(int square, PieceColor attacker) {
+        return Bitboard.contains(attackedSquares[attacker.ordinal()], square);
+    }
+
+    int getAttackerCount(int square, PieceColor attacker) {
+        return attackerCounts[attacker.ordinal()][square];
+    }
+
+    long getAttackedSquares(PieceColor attacker) {
+        return attackedSquares[attacker.ordinal()];
+    }
+
+    private void removeAttacks(int square) {
+        int color = attackerColors[square];
+        if (color == NO_COLOR) {
+            return;
+        }
+        int[] counts = attackerCounts[color];
+        for (long targets = attacksFrom[square]; targets != Bitboard.EMPTY; targets = Bitboard.withoutFirstSquare(targets)) {
+            int target = Bitboard.firstSquare(targets);
+            if (--counts[target] == 0) {
+                attackedSquares[color] &= ~Bitboard.bit(target);
+            }
+        }
+        attacksFrom[square] = Bitboard.EMPTY;
+        attackerColors[square] = NO_COLOR;
+    }
+
+    private void addAttacks(BoardState state, int square) {
+        PieceColor color = state.getPieceColor(square);
+        long attacks = switch (state.getPieceType(square)) {
+            case PAWN -> MoveGenerator.pawnAttacks(square, color);
+            case KNIGHT -> MoveGenerator.knightAttacks(square);
+            case BISHOP -> MoveGenerator.bishopAttacks(square, state.getOccupancy());
+            case ROOK -> MoveGenerator.rookAttacks(square, state.getOccupancy());
+            case QUEEN -> MoveGenerator.bishopAttacks(square, state.getOccupancy())
+                    | MoveGenerator.rookAttacks(square, state.getOccupancy());
+            case KING -> MoveGenerator.kingAttacks(square);
+            default -> Bitboard.EMPTY;
+        };
+        int[] counts = attackerCounts[color.ordinal()];
+        for (long targets = attacks; targets != Bitboard.EMPTY; targets = Bitboard.withoutFirstSquare(targets)) {
+            counts[Bitboard.firstSquare(targets)]++;
+        }
+        attackedSquares[color.ordinal()] |= attacks;
+        attacksFrom[square] = attacks;
+        attackerColors[square] = color.ordinal();
+    }
+}
@@ -0,0 +1,61 @@
+package Game.GameRules;
+
+import Game.Position;
+
+public final class Bitboard {
+
+    public static final int BOARD_SIZE = 8;
+    public static final int SQUARE_COUNT = 64;
+    public static final long EMPTY = 0L;
+
+    private Bitboard() {
+    }
+
+    public static int square(int x, int y) {
+        return (x - 1) * BOARD_SIZE + (y - 1);
+    }
+
+    public static int square(Position position) {
+        return square(position.x(), position.y());
+    }
+
+    public static Position position(int square) {
+        return Position.of(rank(square), file(square));
+    }
+
+    public static int rank(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    public static int file(int square) {
+        return (square & 7) + 1;
+    }
+
+    public static boolean isInBounds(int x, int y) {
+        return x >= 1 && x <= BOARD_SIZE && y >= 1 && y <= BOARD_SIZE;
+    }
+
+    public static boolean isInBounds(Position position) {
+        return isInBounds(position.x(), position.y());
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & (1L << square)) != 0;
+    }
+
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    public static long withoutFirstSquare(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
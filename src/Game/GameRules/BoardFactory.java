@@ -2,6 +2,7 @@ package Game.GameRules;
 
 import Game.Pieces.*;
 import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
 import Game.Position;
 
 import java.util.ArrayList;
@@ -9,6 +10,13 @@ import java.util.List;
 
 public class BoardFactory {
 
+    public static final String STARTING_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //indexed by PieceType ordinal
+    private static final String PIECE_LETTERS = " prnbqk";
+    private static final String CASTLING_LETTERS = "KQkq"; //in the order of the BoardState castling bits
+    private static final long BACK_RANKS = 0xFF000000000000FFL;
+
     public static List<Piece> createDefaultBoard() {
         List<Piece> board = new ArrayList<>();
         for (int x = 1; x <= 8; x++) {
@@ -34,4 +42,155 @@ public class BoardFactory {
         return board;
     }
 
+    //reads the placement and side to move, the castling, en passant and move counter fields may be left out.
+    //Pieces go straight into the bitboards, castling rights without their king and rook at home are dropped.
+    //Positions the move generator cannot handle, without exactly one king per side or with pawns on the first
+    //or last rank, are rejected.
+    public static BoardState fromFen(String fen) {
+        BoardState state = new BoardState();
+        int length = fen.length();
+        int index = skipSpaces(fen, 0);
+        int rank = Bitboard.BOARD_SIZE;
+        int file = 1;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            char c = fen.charAt(index);
+            if (c == '/') {
+                if (file != Bitboard.BOARD_SIZE + 1 || --rank < 1) {
+                    throw new IllegalArgumentException("Malformed placement in " + fen);
+                }
+                file = 1;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int type = PIECE_LETTERS.indexOf(Character.toLowerCase(c));
+                if (type <= 0 || file > Bitboard.BOARD_SIZE) {
+                    throw new IllegalArgumentException("Unknown piece letter " + c + " in " + fen);
+                }
+                state.setupPiece(Bitboard.square(rank, file++),
+                        Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK, PieceType.values()[type]);
+            }
+        }
+        if (rank != 1 || file != Bitboard.BOARD_SIZE + 1) {
+            throw new IllegalArgumentException("Malformed placement in " + fen);
+        }
+        if (Bitboard.count(state.getBitboard(PieceType.KING, PieceColor.WHITE)) != 1
+                || Bitboard.count(state.getBitboard(PieceType.KING, PieceColor.BLACK)) != 1) {
+            throw new IllegalArgumentException("Each side needs exactly one king in " + fen);
+        }
+        long pawns = state.getBitboard(PieceType.PAWN, PieceColor.WHITE)
+                | state.getBitboard(PieceType.PAWN, PieceColor.BLACK);
+        if ((pawns & BACK_RANKS) != 0) {
+            throw new IllegalArgumentException("Pawn on the first or last rank in " + fen);
+        }
+
+        index = skipSpaces(fen, index);
+        PieceColor turn;
+        if (index < length && fen.charAt(index) == 'w') {
+            turn = PieceColor.WHITE;
+        } else if (index < length && fen.charAt(index) == 'b') {
+            turn = PieceColor.BLACK;
+        } else {
+            throw new IllegalArgumentException("Missing side to move in " + fen);
+        }
+
+        int castling = 0;
+        index = skipSpaces(fen, index + 1);
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            int right = CASTLING_LETTERS.indexOf(fen.charAt(index));
+            if (right >= 0) {
+                castling |= 1 << right;
+            } else if (fen.charAt(index) != '-') {
+                throw new IllegalArgumentException("Unknown castling letter " + fen.charAt(index) + " in " + fen);
+            }
+        }
+
+        int enPassant = BoardState.NO_SQUARE;
+        index = skipSpaces(fen, index);
+        if (index + 1 < length && fen.charAt(index) != '-') {
+            int epFile = fen.charAt(index) - 'a' + 1;
+            int epRank = fen.charAt(index + 1) - '0';
+            if (!Bitboard.isInBounds(epRank, epFile) || (epRank != 3 && epRank != 6)) {
+                throw new IllegalArgumentException("Invalid en passant square in " + fen);
+            }
+            enPassant = Bitboard.square(epRank, epFile);
+            index += 2;
+        } else if (index < length) {
+            index++;
+        }
+
+        index = skipSpaces(fen, index);
+        int halfmoves = 0;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            halfmoves = halfmoves * 10 + digit(fen, index);
+        }
+        index = skipSpaces(fen, index);
+        int fullmoves = index < length ? 0 : 1;
+        for (; index < length && fen.charAt(index) != ' '; index++) {
+            fullmoves = fullmoves * 10 + digit(fen, index);
+        }
+        state.setupState(turn, castling, enPassant, halfmoves, Math.max(fullmoves, 1));
+        return state;
+    }
+
+    public static String toFen(BoardState state) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = Bitboard.BOARD_SIZE; rank >= 1; rank--) {
+            int emptySquares = 0;
+            for (int file = 1; file <= Bitboard.BOARD_SIZE; file++) {
+                int square = Bitboard.square(rank, file);
+                PieceType type = state.getPieceType(square);
+                if (type == PieceType.NONE) {
+                    emptySquares++;
+                    continue;
+                }
+                if (emptySquares > 0) {
+                    fen.append(emptySquares);
+                    emptySquares = 0;
+                }
+                char letter = PIECE_LETTERS.charAt(type.ordinal());
+                fen.append(state.getPieceColor(square) == PieceColor.WHITE ? Character.toUpperCase(letter) : letter);
+            }
+            if (emptySquares > 0) {
+                fen.append(emptySquares);
+            }
+            if (rank > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(state.getCurrentTurn() == PieceColor.WHITE ? " w " : " b ");
+        int castling = state.getCastlingRights();
+        for (int right = 0; right < CASTLING_LETTERS.length(); right++) {
+            if ((castling & 1 << right) != 0) {
+                fen.append(CASTLING_LETTERS.charAt(right));
+            }
+        }
+        if (castling == 0) {
+            fen.append('-');
+        }
+
+        int enPassant = state.getEnPassantSquare();
+        if (enPassant == BoardState.NO_SQUARE) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append((char) ('a' + Bitboard.file(enPassant) - 1)).append(Bitboard.rank(enPassant));
+        }
+        return fen.append(' ').append(state.getHalfmoveClock()).append(' ').append(state.getFullmoveNumber())
+                .toString();
+    }
+
+    private static int skipSpaces(String fen, int index) {
+        while (index < fen.length() && fen.charAt(index) == ' ') {
+            index++;
+        }
+        return index;
+    }
+
+    private static int digit(String fen, int index) {
+        char c = fen.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Invalid move counter in " + fen);
+        }
+        return c - '0';
+    }
 }
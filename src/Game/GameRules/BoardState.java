@@ -1,6 +1,5 @@
 package Game.GameRules;
 
-import Game.Direction;
 import Game.Pieces.*;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
@@ -13,44 +12,508 @@ public class BoardState {
 
     private static final int BOARD_LOWER_BOUND = 1;
     private static final int BOARD_UPPER_BOUND = 8;
-    private final Map<Position, Piece> piecesInGame;
+    private static final int PIECE_TYPE_COUNT = PieceType.values().length;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    static final int BITBOARD_COUNT = PieceColor.values().length * PIECE_TYPE_COUNT;
+    public static final int NO_SQUARE = -1;
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    private static final int[] CASTLING_RIGHTS_KEPT = createCastlingRightsKept();
+    private static final int UNDO_STACK_CAPACITY = 256;
+    private static final int CASTLING_MASK = 0xF;
+    private static final int EN_PASSANT_SHIFT = 4;
+    private static final int EN_PASSANT_MASK = 0x7F;
+    private static final int CAPTURED_TYPE_SHIFT = 11;
+    private static final int MOVING_TYPE_SHIFT = 14;
+    private static final int TYPE_MASK = 0x7;
+    private static final int MOVING_STATE_SHIFT = 17;
+    private static final int ROOK_STATE_SHIFT = 21;
+    private static final int MOVE_STATE_MASK = 0xF;
+    private static final int TURN_CHANGED = 1 << 25;
+    private final Piece[] squares;
+    private final long[] pieceBitboards; //one bitboard per color/type pair, see bitboardIndex
+    private final long[] colorOccupancy;
+    private long occupancy;
+    private final int[] kingSquares;
+    private AttackMap attackMap; //built on the first attack query, search copies never need it
+    private long changedSquares; //squares changed since the attack map was last updated
     private PieceColor currentTurn;
-    private MovementInformation lastMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock; //plies since the last capture or pawn move
+    private int fullmoveNumber;
+    private long zobristKey;
+    private long pawnKey; //Zobrist key of the pawns alone
+    private int middlegameScore; //material and piece-square sums from white's point of view, see PieceSquareTables
+    private int endgameScore;
+    private int gamePhase;
+    private int[] undoMoves;
+    private int[] undoStates; //castling rights, en passant square and piece types/flags, see pushUndo
+    private long[] undoKeys;
+    private int[] undoHalfmoveClocks;
+    private long[] historyKeys = new long[0]; //positions played before this copy was made, oldest first
+    private int historyCount;
+    private Piece[] undoMovingPieces;
+    private Piece[] undoCapturedPieces;
+    private int undoCount;
     private Piece promotionTarget;
     @SuppressWarnings("all") //not used, but leaving here for compatibility with a possible UI feature
     private final List<PieceTypeColor> capturedPieces;
 
     public BoardState(List<Piece> startingPieceLayout){
-        piecesInGame = new HashMap<>();
-        startingPieceLayout.forEach(piece -> piecesInGame.put(piece.getCurrentPos(),piece));
+        this();
+        startingPieceLayout.forEach(piece -> placePiece(piece, Bitboard.square(piece.getCurrentPos())));
+        castlingRights = findCastlingRights(PieceColor.WHITE) | findCastlingRights(PieceColor.BLACK);
+        zobristKey = computeZobristKey();
+    }
+
+    //an empty board with white to move, filled by BoardFactory.fromFen through setupPiece and setupState
+    BoardState(){
+        squares = new Piece[Bitboard.SQUARE_COUNT];
+        pieceBitboards = new long[BITBOARD_COUNT];
+        colorOccupancy = new long[PieceColor.values().length];
+        kingSquares = new int[PieceColor.values().length];
+        Arrays.fill(kingSquares, NO_SQUARE);
+        allocateUndoStack();
         currentTurn = PieceColor.WHITE;
+        enPassantSquare = NO_SQUARE;
+        fullmoveNumber = 1;
+        capturedPieces = new LinkedList<>();
+    }
+
+    //copies only the board representation, piece objects are created on demand by getPiece
+    public BoardState(BoardState other){
+        squares = new Piece[Bitboard.SQUARE_COUNT];
+        pieceBitboards = new long[other.pieceBitboards.length];
+        colorOccupancy = new long[other.colorOccupancy.length];
+        kingSquares = new int[other.kingSquares.length];
+        allocateUndoStack();
         capturedPieces = new LinkedList<>();
+        copyFrom(other);
+    }
+
+    public void copyFrom(BoardState other){
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        Arrays.fill(squares, null);
+        occupancy = other.occupancy;
+        currentTurn = other.currentTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        zobristKey = other.zobristKey;
+        pawnKey = other.pawnKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        gamePhase = other.gamePhase;
+        copyRepetitionHistory(other);
+        undoCount = 0;
+        changedSquares = ~Bitboard.EMPTY;
+        promotionTarget = null;
+    }
+
+    //keeps the keys of other's positions back to its last capture or pawn move, so the copy still sees
+    //repetitions of positions that were played before it was made
+    private void copyRepetitionHistory(BoardState other){
+        int first = other.undoCount;
+        while(first > 0 && isReversible(other.undoStates[first - 1])){
+            first--;
+        }
+        int carried = first == 0 ? other.historyCount : 0;
+        int count = carried + other.undoCount - first;
+        if(historyKeys.length < count){
+            historyKeys = new long[count];
+        }
+        System.arraycopy(other.historyKeys, 0, historyKeys, 0, carried);
+        System.arraycopy(other.undoKeys, first, historyKeys, carried, other.undoCount - first);
+        historyCount = count;
+    }
+
+    private void allocateUndoStack(){
+        undoMoves = new int[UNDO_STACK_CAPACITY];
+        undoStates = new int[UNDO_STACK_CAPACITY];
+        undoKeys = new long[UNDO_STACK_CAPACITY];
+        undoHalfmoveClocks = new int[UNDO_STACK_CAPACITY];
+        undoMovingPieces = new Piece[UNDO_STACK_CAPACITY];
+        undoCapturedPieces = new Piece[UNDO_STACK_CAPACITY];
+    }
+
+    private static int[] createCastlingRightsKept(){
+        int[] kept = new int[Bitboard.SQUARE_COUNT];
+        Arrays.fill(kept, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        kept[Bitboard.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        kept[Bitboard.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        kept[Bitboard.square(1, 8)] &= ~WHITE_KINGSIDE;
+        kept[Bitboard.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        kept[Bitboard.square(8, 1)] &= ~BLACK_QUEENSIDE;
+        kept[Bitboard.square(8, 8)] &= ~BLACK_KINGSIDE;
+        return kept;
+    }
+
+    private int findCastlingRights(PieceColor color){
+        int homeRow = color == PieceColor.WHITE ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND;
+        Piece king = squares[Bitboard.square(homeRow, 5)];
+        if(!(king instanceof King) || king.getColor() != color || ((King) king).hasMoved()){
+            return 0;
+        }
+        int rights = 0;
+        if(isUnmovedRook(squares[Bitboard.square(homeRow, BOARD_UPPER_BOUND)], color)){
+            rights |= color == PieceColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        }
+        if(isUnmovedRook(squares[Bitboard.square(homeRow, BOARD_LOWER_BOUND)], color)){
+            rights |= color == PieceColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    private static boolean isUnmovedRook(Piece piece, PieceColor color){
+        return piece instanceof Rook && piece.getColor() == color && !((Rook) piece).hasMoved();
+    }
+
+    private static int bitboardIndex(PieceColor color, PieceType type){
+        return color.ordinal() * PIECE_TYPE_COUNT + type.ordinal();
+    }
+
+    void setupPiece(int square, PieceColor color, PieceType type){
+        setSquare(square, color, type);
+    }
+
+    //castling rights without their king and rook on the home squares are dropped
+    void setupState(PieceColor turn, int castling, int enPassant, int halfmoves, int fullmoves){
+        currentTurn = turn;
+        castlingRights = castling & homeSquareCastlingRights();
+        enPassantSquare = enPassant;
+        halfmoveClock = halfmoves;
+        fullmoveNumber = fullmoves;
+        zobristKey = computeZobristKey();
+    }
+
+    private int homeSquareCastlingRights(){
+        int rights = 0;
+        long whiteRooks = getBitboard(PieceType.ROOK, PieceColor.WHITE);
+        long blackRooks = getBitboard(PieceType.ROOK, PieceColor.BLACK);
+        if(kingSquares[PieceColor.WHITE.ordinal()] == Bitboard.square(1, 5)){
+            rights |= Bitboard.contains(whiteRooks, Bitboard.square(1, 8)) ? WHITE_KINGSIDE : 0;
+            rights |= Bitboard.contains(whiteRooks, Bitboard.square(1, 1)) ? WHITE_QUEENSIDE : 0;
+        }
+        if(kingSquares[PieceColor.BLACK.ordinal()] == Bitboard.square(8, 5)){
+            rights |= Bitboard.contains(blackRooks, Bitboard.square(8, 8)) ? BLACK_KINGSIDE : 0;
+            rights |= Bitboard.contains(blackRooks, Bitboard.square(8, 1)) ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
+    }
+
+    private void placePiece(Piece piece, int square){
+        removePiece(square);
+        squares[square] = piece;
+        setSquare(square, piece.getColor(), piece.getType());
+    }
+
+    private Piece removePiece(int square){
+        if(!Bitboard.contains(occupancy, square)){
+            return null;
+        }
+        Piece piece = getPiece(square);
+        squares[square] = null;
+        clearSquare(square, piece.getColor(), piece.getType());
+        return piece;
+    }
+
+    private void setSquare(int square, PieceColor color, PieceType type){
+        long bit = Bitboard.bit(square);
+        int index = bitboardIndex(color, type);
+        pieceBitboards[index] |= bit;
+        colorOccupancy[color.ordinal()] |= bit;
+        occupancy |= bit;
+        changedSquares |= bit;
+        zobristKey ^= Zobrist.piece(index, square);
+        if(type == PieceType.PAWN){
+            pawnKey ^= Zobrist.piece(index, square);
+        }
+        middlegameScore += PieceSquareTables.middlegame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        gamePhase += PieceSquareTables.phaseWeight(type);
+        if(type == PieceType.KING){
+            kingSquares[color.ordinal()] = square;
+        }
+    }
+
+    private void clearSquare(int square, PieceColor color, PieceType type){
+        long bit = Bitboard.bit(square);
+        int index = bitboardIndex(color, type);
+        pieceBitboards[index] &= ~bit;
+        colorOccupancy[color.ordinal()] &= ~bit;
+        occupancy &= ~bit;
+        changedSquares |= bit;
+        zobristKey ^= Zobrist.piece(index, square);
+        if(type == PieceType.PAWN){
+            pawnKey ^= Zobrist.piece(index, square);
+        }
+        middlegameScore -= PieceSquareTables.middlegame(index, square);
+        endgameScore -= PieceSquareTables.endgame(index, square);
+        gamePhase -= PieceSquareTables.phaseWeight(type);
+        if(type == PieceType.KING && kingSquares[color.ordinal()] == square){
+            kingSquares[color.ordinal()] = NO_SQUARE;
+        }
+    }
+
+    private void shiftSquare(int from, int to, PieceColor color, PieceType type){
+        long fromTo = Bitboard.bit(from) | Bitboard.bit(to);
+        int index = bitboardIndex(color, type);
+        pieceBitboards[index] ^= fromTo;
+        colorOccupancy[color.ordinal()] ^= fromTo;
+        occupancy ^= fromTo;
+        changedSquares |= fromTo;
+        zobristKey ^= Zobrist.piece(index, from) ^ Zobrist.piece(index, to);
+        if(type == PieceType.PAWN){
+            pawnKey ^= Zobrist.piece(index, from) ^ Zobrist.piece(index, to);
+        }
+        middlegameScore += PieceSquareTables.middlegame(index, to) - PieceSquareTables.middlegame(index, from);
+        endgameScore += PieceSquareTables.endgame(index, to) - PieceSquareTables.endgame(index, from);
+        if(type == PieceType.KING){
+            kingSquares[color.ordinal()] = to;
+        }
+        Piece piece = squares[from];
+        squares[from] = null;
+        squares[to] = piece;
+        if(piece != null){
+            piece.afterMove(Bitboard.position(to));
+        }
+    }
+
+    public void makeMove(int move){
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        PieceColor us = currentTurn;
+        PieceColor them = us.getOppositeColor();
+        PieceType movingType = getPieceType(from);
+        int capturedSquare = kind == Move.KIND_EN_PASSANT ? enPassantVictimSquare(from, to) : to;
+        PieceType capturedType = Move.isCapture(move) || kind == Move.KIND_EN_PASSANT ?
+                getPieceType(capturedSquare) : PieceType.NONE;
+        int rookFrom = kind == Move.KIND_CASTLING ? castlingRookOrigin(from, to) : NO_SQUARE;
+        pushUndo(move, movingType, capturedType, squares[capturedSquare],
+                rookFrom == NO_SQUARE || squares[rookFrom] == null ? 0 : squares[rookFrom].getMoveState(), true);
+
+        if(capturedType != PieceType.NONE){
+            clearSquare(capturedSquare, them, capturedType);
+            squares[capturedSquare] = null;
+        }
+        shiftSquare(from, to, us, movingType);
+
+        if(Move.isPromotion(move)){
+            clearSquare(to, us, PieceType.PAWN);
+            setSquare(to, us, Move.promotionType(move));
+            squares[to] = null;
+        } else if(kind == Move.KIND_CASTLING){
+            shiftSquare(rookFrom, castlingRookDestination(from, to), us, PieceType.ROOK);
+        }
+
+        setCastlingRights(castlingRights & CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to]);
+        setEnPassantSquare(kind == Move.KIND_DOUBLE_PUSH ? (from + to) / 2 : NO_SQUARE);
+        halfmoveClock = capturedType != PieceType.NONE || movingType == PieceType.PAWN ? 0 : halfmoveClock + 1;
+        changeTurn();
+    }
+
+    //pops the most recent movePiece or makeMove, restoring the previous position bit for bit
+    public void unmakeMove(){
+        int top = --undoCount;
+        int move = undoMoves[top];
+        int undoState = undoStates[top];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int kind = Move.kind(move);
+        PieceColor us = getPieceColor(to);
+
+        if(kind == Move.KIND_CASTLING){
+            restoreSquare(castlingRookDestination(from, to), castlingRookOrigin(from, to), us, PieceType.ROOK,
+                    squares[castlingRookDestination(from, to)], (undoState >>> ROOK_STATE_SHIFT) & MOVE_STATE_MASK);
+        }
+        clearSquare(to, us, getPieceType(to));
+        squares[to] = null;
+        restoreSquare(from, from, us, PIECE_TYPES[(undoState >>> MOVING_TYPE_SHIFT) & TYPE_MASK],
+                undoMovingPieces[top], (undoState >>> MOVING_STATE_SHIFT) & MOVE_STATE_MASK);
+        PieceType capturedType = PIECE_TYPES[(undoState >>> CAPTURED_TYPE_SHIFT) & TYPE_MASK];
+        if(capturedType != PieceType.NONE){
+            int capturedSquare = kind == Move.KIND_EN_PASSANT ? enPassantVictimSquare(from, to) : to;
+            setSquare(capturedSquare, us.getOppositeColor(), capturedType);
+            squares[capturedSquare] = undoCapturedPieces[top];
+        }
+        if((undoState & TURN_CHANGED) != 0){
+            currentTurn = currentTurn.getOppositeColor();
+            if(currentTurn == PieceColor.BLACK){
+                fullmoveNumber--;
+            }
+        }
+        halfmoveClock = undoHalfmoveClocks[top];
+        castlingRights = undoState & CASTLING_MASK;
+        enPassantSquare = ((undoState >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK) - 1;
+        zobristKey = undoKeys[top];
+        undoMovingPieces[top] = null;
+        undoCapturedPieces[top] = null;
+    }
+
+    public int getUndoDepth(){
+        return undoCount;
+    }
+
+    //true when the current position already occurred since the last capture or pawn move on the undo stack
+    public boolean isRepetition(){
+        for (int i = undoCount - 1; i >= 0; i--) {
+            if(!isReversible(undoStates[i])){
+                return false;
+            }
+            if(((undoCount - i) & 1) == 0 && undoKeys[i] == zobristKey){
+                return true;
+            }
+        }
+        //the side to move is part of the key, so positions from before the copy need no parity check
+        for (int i = historyCount - 1; i >= 0; i--) {
+            if(historyKeys[i] == zobristKey){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReversible(int undoState){
+        return ((undoState >>> CAPTURED_TYPE_SHIFT) & TYPE_MASK) == PieceType.NONE.ordinal()
+                && ((undoState >>> MOVING_TYPE_SHIFT) & TYPE_MASK) != PieceType.PAWN.ordinal();
+    }
+
+    private void pushUndo(int move, PieceType movingType, PieceType capturedType, Piece capturedPiece,
+                          int rookState, boolean turnChanged){
+        if(undoCount == undoMoves.length){
+            growUndoStack();
+        }
+        Piece movingPiece = squares[Move.from(move)];
+        undoMoves[undoCount] = move;
+        undoStates[undoCount] = castlingRights
+                | (enPassantSquare + 1) << EN_PASSANT_SHIFT
+                | capturedType.ordinal() << CAPTURED_TYPE_SHIFT
+                | movingType.ordinal() << MOVING_TYPE_SHIFT
+                | (movingPiece == null ? 0 : movingPiece.getMoveState()) << MOVING_STATE_SHIFT
+                | rookState << ROOK_STATE_SHIFT
+                | (turnChanged ? TURN_CHANGED : 0);
+        undoKeys[undoCount] = zobristKey;
+        undoHalfmoveClocks[undoCount] = halfmoveClock;
+        undoMovingPieces[undoCount] = movingPiece;
+        undoCapturedPieces[undoCount] = capturedPiece;
+        undoCount++;
+    }
+
+    //only reached when a game outgrows the preallocated stack, searches never get there
+    private void growUndoStack(){
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoStates = Arrays.copyOf(undoStates, capacity);
+        undoKeys = Arrays.copyOf(undoKeys, capacity);
+        undoHalfmoveClocks = Arrays.copyOf(undoHalfmoveClocks, capacity);
+        undoMovingPieces = Arrays.copyOf(undoMovingPieces, capacity);
+        undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
+    }
+
+    private void restoreSquare(int from, int to, PieceColor color, PieceType type, Piece piece, int moveState){
+        if(from != to){
+            clearSquare(from, color, type);
+            squares[from] = null;
+        }
+        setSquare(to, color, type);
+        squares[to] = piece;
+        if(piece != null){
+            piece.restoreMoveState(Bitboard.position(to), moveState);
+        }
+    }
+
+    private static int enPassantVictimSquare(int from, int to){
+        return (from & ~7) | (to & 7);
+    }
+
+    private static int castlingRookOrigin(int kingFrom, int kingTo){
+        return kingTo > kingFrom ? kingFrom + 3 : kingFrom - 4;
+    }
+
+    private static int castlingRookDestination(int kingFrom, int kingTo){
+        return kingTo > kingFrom ? kingFrom + 1 : kingFrom - 1;
+    }
+
+    private void setCastlingRights(int rights){
+        zobristKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    private void setEnPassantSquare(int square){
+        zobristKey ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
+        enPassantSquare = square;
+    }
+
+    public long computeZobristKey(){
+        long key = Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if(currentTurn == PieceColor.BLACK){
+            key ^= Zobrist.blackToMove();
+        }
+        for (int index = 0; index < BITBOARD_COUNT; index++) {
+            for (long pieces = pieceBitboards[index]; pieces != Bitboard.EMPTY;
+                 pieces = Bitboard.withoutFirstSquare(pieces)) {
+                key ^= Zobrist.piece(index, Bitboard.firstSquare(pieces));
+            }
+        }
+        return key;
     }
 
     public void changeTurn(){
+        if(currentTurn == PieceColor.BLACK){
+            fullmoveNumber++;
+        }
         currentTurn = currentTurn.getOppositeColor();
+        zobristKey ^= Zobrist.blackToMove();
     }
 
     public void movePiece(Position from, Position to){
-        Piece capturedPiece = piecesInGame.get(to);
-        Piece movingPiece = piecesInGame.remove(from);
-        piecesInGame.put(to, movingPiece);
+        int fromSquare = Bitboard.square(from);
+        int toSquare = Bitboard.square(to);
+        Piece movingPiece = getPiece(fromSquare);
+        Piece capturedPiece = getPiece(toSquare);
+        //the rook step of a castling is the second half of the same move
+        boolean castlingRookStep = movingPiece.getType() == PieceType.ROOK && undoCount > 0
+                && ((undoStates[undoCount - 1] >>> MOVING_TYPE_SHIFT) & TYPE_MASK) == PieceType.KING.ordinal()
+                && Math.abs(Move.to(undoMoves[undoCount - 1]) - Move.from(undoMoves[undoCount - 1])) == 2
+                && getPieceColor(Move.to(undoMoves[undoCount - 1])) == movingPiece.getColor();
+        pushUndo(capturedPiece == null ? Move.of(fromSquare, toSquare) : Move.capture(fromSquare, toSquare),
+                movingPiece.getType(), capturedPiece == null ? PieceType.NONE : capturedPiece.getType(),
+                capturedPiece, 0, false);
+        removePiece(toSquare);
+        removePiece(fromSquare);
+        placePiece(movingPiece, toSquare);
+        setCastlingRights(castlingRights & CASTLING_RIGHTS_KEPT[fromSquare] & CASTLING_RIGHTS_KEPT[toSquare]);
+        setEnPassantSquare(movingPiece.getType() == PieceType.PAWN && Math.abs(toSquare - fromSquare) == 16 ?
+                (fromSquare + toSquare) / 2 : NO_SQUARE);
+        if(capturedPiece != null || movingPiece.getType() == PieceType.PAWN){
+            halfmoveClock = 0;
+        } else if(!castlingRookStep){
+            halfmoveClock++;
+        }
         if(capturedPiece != null){
             capturedPieces.add(capturedPiece.getTypeColor());
-            lastMove = new MovementInformation(MovementInformation.MoveType.CAPTURE, movingPiece,
-                    from, to, capturedPiece);
-        } else {
-            lastMove = new MovementInformation(MovementInformation.MoveType.MOVE, movingPiece,
-                    from, to, null);
         }
     }
 
     public void finishMove(Position piecePosition){
-        piecesInGame.get(piecePosition).afterMove(piecePosition);
+        getPiece(piecePosition).afterMove(piecePosition);
     }
 
+    //completes the movePiece on top of the undo stack, so reverting it puts the captured pawn back
     public void enPassantCapture(Position pawnPosition){
-        capturedPieces.add(piecesInGame.remove(pawnPosition).getTypeColor());
+        int top = undoCount - 1;
+        Piece capturedPawn = removePiece(Bitboard.square(pawnPosition));
+        undoMoves[top] = Move.of(Move.from(undoMoves[top]), Move.to(undoMoves[top]), Move.KIND_EN_PASSANT);
+        undoStates[top] |= PieceType.PAWN.ordinal() << CAPTURED_TYPE_SHIFT;
+        undoCapturedPieces[top] = capturedPawn;
+        capturedPieces.add(capturedPawn.getTypeColor());
     }
 
     public void setPromotionTarget(Piece target){
@@ -62,19 +525,17 @@ public class BoardState {
     }
 
     public boolean promote(PieceType promotionTo){
+        Position targetPosition = promotionTarget.getCurrentPos();
+        PieceColor targetColor = promotionTarget.getColor();
         switch (promotionTo) {
             case  ROOK ->
-                    piecesInGame.replace(promotionTarget.getCurrentPos(),
-                            new Rook(promotionTarget.getColor(), promotionTarget.getCurrentPos()));
+                    placePiece(new Rook(targetColor, targetPosition), Bitboard.square(targetPosition));
             case BISHOP ->
-                    piecesInGame.replace(promotionTarget.getCurrentPos(),
-                            new Bishop(promotionTarget.getColor(), promotionTarget.getCurrentPos()));
+                    placePiece(new Bishop(targetColor, targetPosition), Bitboard.square(targetPosition));
             case KNIGHT ->
-                    piecesInGame.replace(promotionTarget.getCurrentPos(),
-                            new Knight(promotionTarget.getColor(), promotionTarget.getCurrentPos()));
+                    placePiece(new Knight(targetColor, targetPosition), Bitboard.square(targetPosition));
             case QUEEN ->
-                    piecesInGame.replace(promotionTarget.getCurrentPos(),
-                            new Queen(promotionTarget.getColor(), promotionTarget.getCurrentPos()));
+                    placePiece(new Queen(targetColor, targetPosition), Bitboard.square(targetPosition));
             default -> {
                 return false;
             }
@@ -85,90 +546,197 @@ public class BoardState {
     }
 
     public void revertLastMove(){
-        switch (lastMove.moveType){
-            case MOVE -> revertMove();
-            case CAPTURE -> revertCapture();
-            case EN_PASSANT -> revertEnPassant();
-            case CASTLING -> revertCastling();
-            case PROMOTION -> revertPromotion();
-        }
-    }
-
-    private void revertMove(){
-        piecesInGame.remove(lastMove.to());
-        piecesInGame.put(lastMove.from(), lastMove.movingPiece());
+        unmakeMove();
     }
 
-    private void revertCapture(){
-        piecesInGame.put(lastMove.to(), lastMove.secondPiece());
-        piecesInGame.put(lastMove.from(), lastMove.movingPiece());
+    public Piece getPiece(Position position){
+        if(!Bitboard.isInBounds(position)){
+            return null;
+        }
+        return getPiece(Bitboard.square(position));
     }
 
-    private void revertEnPassant(){
-        piecesInGame.remove(lastMove.to());
-        piecesInGame.put(lastMove.from(), lastMove.movingPiece());
-        piecesInGame.put(new Position(lastMove.from().x(),lastMove.to().y()), lastMove.secondPiece());
+    public Piece getPiece(int square){
+        if(squares[square] == null && Bitboard.contains(occupancy, square)){
+            squares[square] = createPiece(square);
+        }
+        return squares[square];
     }
 
-    private void revertCastling(){
-        piecesInGame.remove(lastMove.to());
-        piecesInGame.put(lastMove.from(), lastMove.movingPiece());
-        Direction castlingDirection = Direction.findDirection(lastMove.from, lastMove.to);
-        Position rookFrom = new Position(lastMove.from.x(),
-                castlingDirection == Direction.L ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND);
-        Position rookTo = new Position(lastMove.to().x(), lastMove.to().y() - castlingDirection.y);
-        piecesInGame.remove(rookTo);
-        piecesInGame.put(rookFrom, lastMove.secondPiece());
+    //a piece created on first access takes the move state the position implies: a pawn off its home rank has
+    //moved, the pawn that just advanced two squares can be taken en passant, a king or rook without a castling
+    //right through its square has moved
+    private Piece createPiece(int square){
+        PieceType type = getPieceType(square);
+        PieceColor color = getPieceColor(square);
+        Position position = Bitboard.position(square);
+        Piece piece = switch (type) {
+            case PAWN -> new Pawn(color, position);
+            case ROOK -> new Rook(color, position);
+            case KNIGHT -> new Knight(color, position);
+            case BISHOP -> new Bishop(color, position);
+            case QUEEN -> new Queen(color, position);
+            default -> new King(color, position);
+        };
+        boolean castles = (castlingRights & ~CASTLING_RIGHTS_KEPT[square]) != 0;
+        int moveState = switch (type) {
+            case PAWN -> (Bitboard.rank(square) == (color == PieceColor.WHITE ? 2 : 7) ? 0 : 1)
+                    | (enPassantSquare != NO_SQUARE
+                    && square == enPassantSquare + (color == PieceColor.WHITE ? 8 : -8) ? 2 : 0);
+            case ROOK, KING -> castles ? 0 : 1;
+            default -> 0;
+        };
+        piece.restoreMoveState(position, moveState);
+        return piece;
     }
 
-    private void revertPromotion(){
-        piecesInGame.remove(lastMove.to());
-        piecesInGame.put(lastMove.from(), lastMove.secondPiece());
+    public PieceColor getPieceColor(Position position){
+        if(!Bitboard.isInBounds(position)){
+            return PieceColor.NONE;
+        }
+        return getPieceColor(Bitboard.square(position));
     }
 
-    public Piece getPiece(Position position){
-        return piecesInGame.get(position);
+    public PieceColor getPieceColor(int square){
+        long bit = Bitboard.bit(square);
+        if((colorOccupancy[PieceColor.WHITE.ordinal()] & bit) != 0){
+            return PieceColor.WHITE;
+        } else if((colorOccupancy[PieceColor.BLACK.ordinal()] & bit) != 0){
+            return PieceColor.BLACK;
+        }
+        return PieceColor.NONE;
     }
 
-    public PieceColor getPieceColor(Position position){
-        if(getPiece(position) == null){
-            return PieceColor.NONE;
+    public PieceType getPieceType(Position position){
+        if(!Bitboard.isInBounds(position)){
+            return PieceType.NONE;
         }
-        return getPiece(position).getColor();
+        return getPieceType(Bitboard.square(position));
     }
 
-    public PieceType getPieceType(Position position){
-        if(getPiece(position) == null){
+    public PieceType getPieceType(int square){
+        long bit = Bitboard.bit(square);
+        if((occupancy & bit) == 0){
             return PieceType.NONE;
         }
-        return getPiece(position).getType();
+        int colorOffset = getPieceColor(square).ordinal() * PIECE_TYPE_COUNT;
+        for (int type = PieceType.PAWN.ordinal(); type < PIECE_TYPE_COUNT; type++) {
+            if((pieceBitboards[colorOffset + type] & bit) != 0){
+                return PIECE_TYPES[type];
+            }
+        }
+        return PieceType.NONE;
     }
 
     public PieceTypeColor getPieceTypeColor(Position position){
-        return new PieceTypeColor(getPieceType(position), getPieceColor(position));
+        return PieceTypeColor.of(getPieceType(position), getPieceColor(position));
+    }
+
+    public PieceTypeColor getPieceTypeColor(int square){
+        return PieceTypeColor.of(getPieceType(square), getPieceColor(square));
+    }
+
+    public long getBitboard(PieceType type, PieceColor color){
+        return pieceBitboards[bitboardIndex(color, type)];
+    }
+
+    public long getColorOccupancy(PieceColor color){
+        return colorOccupancy[color.ordinal()];
+    }
+
+    public long getOccupancy(){
+        return occupancy;
     }
 
     public PieceColor getCurrentTurn() {
         return currentTurn;
     }
 
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    //sum of PieceSquareTables phase weights on the board, can exceed MAX_PHASE after promotions
+    public int getGamePhase() {
+        return gamePhase;
+    }
+
+    public boolean isSquareAttacked(int square, PieceColor attacker){
+        return updatedAttackMap().isAttacked(square, attacker);
+    }
+
+    public long getAttackers(int square, PieceColor attacker){
+        return MoveGenerator.attackersTo(this, square, attacker, occupancy);
+    }
+
+    public int getAttackerCount(int square, PieceColor attacker){
+        return updatedAttackMap().getAttackerCount(square, attacker);
+    }
+
+    public long getAttackedSquares(PieceColor attacker){
+        return updatedAttackMap().getAttackedSquares(attacker);
+    }
+
+    private AttackMap updatedAttackMap(){
+        if(attackMap == null){
+            attackMap = new AttackMap();
+            changedSquares = ~Bitboard.EMPTY;
+        }
+        if(changedSquares != Bitboard.EMPTY){
+            attackMap.update(this, changedSquares);
+            changedSquares = Bitboard.EMPTY;
+        }
+        return attackMap;
+    }
+
+    public int getKingSquare(PieceColor color){
+        return kingSquares[color.ordinal()];
+    }
+
     public King getKing(PieceColor color){
-        for (Piece piece:
-             piecesInGame.values()) {
-            if (piece.getType() == PieceType.KING && piece.getColor() == color){
-                return (King) piece;
-            }
+        int kingSquare = kingSquares[color.ordinal()];
+        if(kingSquare == NO_SQUARE){
+            return null; //will never happen
         }
-        return null; //will never happen
+        return (King) getPiece(kingSquare);
     }
 
     public Collection<Piece> getPieceCollection(){
-        return piecesInGame.values();
+        List<Piece> pieces = new ArrayList<>(Bitboard.count(occupancy));
+        for (long remaining = occupancy; remaining != Bitboard.EMPTY;
+             remaining = Bitboard.withoutFirstSquare(remaining)) {
+            pieces.add(getPiece(Bitboard.firstSquare(remaining)));
+        }
+        return pieces;
     }
 
-    private record MovementInformation(MoveType moveType, Piece movingPiece, Position from, Position to,
-                                       Piece secondPiece){
-        enum MoveType {MOVE, CAPTURE, EN_PASSANT, CASTLING, PROMOTION}
-    }
 
 }
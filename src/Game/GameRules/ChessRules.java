@@ -10,6 +10,8 @@ import Game.Position;
 public interface ChessRules {
     MoveResult move(Position from, Position to);
 
+    MoveResult move(int move);
+
     boolean isInCheck(PieceColor color);
 
     MoveResult promote(PieceType to);
@@ -31,4 +33,14 @@ public interface ChessRules {
     PieceTypeColor[][] getVisualBoard();
 
     PieceColor getCurrentTurn();
+
+    int generateLegalMoves(int[] moveBuffer);
+
+    long getPositionKey();
+
+    long getOccupancy();
+
+    long getColorOccupancy(PieceColor color);
+
+    BoardState copyBoardState();
 }
@@ -0,0 +1,51 @@
+package Game.GameRules;
+
+import Game.Direction;
+import Game.Pieces.PieceInfo.PieceColor;
+
+/*
+ * Attack masks for the pieces whose moves do not depend on blockers. Built once when the class loads and
+ * shared by every game in the JVM.
+ */
+public final class LeaperAttacks {
+
+    private static final int[][] KNIGHT_OFFSETS = {{2, 1}, {2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {-2, 1}, {-2, -1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[Bitboard.SQUARE_COUNT];
+    private static final long[] KING_ATTACKS = new long[Bitboard.SQUARE_COUNT];
+    private static final long[][] PAWN_ATTACKS = new long[PieceColor.values().length][Bitboard.SQUARE_COUNT];
+
+    static {
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int x = Bitboard.rank(square);
+            int y = Bitboard.file(square);
+            for (int[] offset : KNIGHT_OFFSETS) {
+                KNIGHT_ATTACKS[square] |= maskIfInBounds(x + offset[0], y + offset[1]);
+            }
+            for (Direction d : Direction.STEPS) {
+                KING_ATTACKS[square] |= maskIfInBounds(x + d.x, y + d.y);
+            }
+            PAWN_ATTACKS[PieceColor.WHITE.ordinal()][square] = maskIfInBounds(x + 1, y - 1) | maskIfInBounds(x + 1, y + 1);
+            PAWN_ATTACKS[PieceColor.BLACK.ordinal()][square] = maskIfInBounds(x - 1, y - 1) | maskIfInBounds(x - 1, y + 1);
+        }
+    }
+
+    private LeaperAttacks() {
+    }
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    public static long pawnAttacks(int square, PieceColor color) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    private static long maskIfInBounds(int x, int y) {
+        return Bitboard.isInBounds(x, y) ? Bitboard.bit(Bitboard.square(x, y)) : Bitboard.EMPTY;
+    }
+}
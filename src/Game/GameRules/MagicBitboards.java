@@ -0,0 +1,160 @@
+package Game.GameRules;
+
+import Game.Direction;
+
+import java.util.SplittableRandom;
+
+/*
+ * Rook and bishop attacks looked up by occupancy: the blockers on a square's rays are masked, multiplied by a
+ * magic number and shifted into an index into that square's slice of the attack table. The magic numbers are
+ * searched for at class load with a fixed seed, so the tables are the same on every run.
+ */
+public final class MagicBitboards {
+
+    private static final long SEED = 0x6D61_6769_63L;
+    private static final Direction[] ORTHOGONAL = {Direction.U, Direction.R, Direction.D, Direction.L};
+    private static final Direction[] DIAGONAL = {Direction.UR, Direction.DR, Direction.DL, Direction.UL};
+
+    private static final Magic[] ROOK_MAGICS = new Magic[Bitboard.SQUARE_COUNT];
+    private static final Magic[] BISHOP_MAGICS = new Magic[Bitboard.SQUARE_COUNT];
+    private static final long[][] BETWEEN = new long[Bitboard.SQUARE_COUNT][Bitboard.SQUARE_COUNT];
+    private static final long[][] LINE = new long[Bitboard.SQUARE_COUNT][Bitboard.SQUARE_COUNT];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            ROOK_MAGICS[square] = findMagic(square, ORTHOGONAL, random);
+            BISHOP_MAGICS[square] = findMagic(square, DIAGONAL, random);
+            fillLines(square, ORTHOGONAL);
+            fillLines(square, DIAGONAL);
+        }
+    }
+
+    private MagicBitboards() {
+    }
+
+    public static long rookAttacks(int square, long occupancy) {
+        return ROOK_MAGICS[square].attacks(occupancy);
+    }
+
+    public static long bishopAttacks(int square, long occupancy) {
+        return BISHOP_MAGICS[square].attacks(occupancy);
+    }
+
+    public static long queenAttacks(int square, long occupancy) {
+        return ROOK_MAGICS[square].attacks(occupancy) | BISHOP_MAGICS[square].attacks(occupancy);
+    }
+
+    //squares strictly between two aligned squares, empty when they do not share a rank, file or diagonal
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    //the whole rank, file or diagonal through two aligned squares, empty when they are not aligned
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static void fillLines(int square, Direction[] directions) {
+        for (Direction d : directions) {
+            long line = Bitboard.bit(square) | slidingAttacks(square, Bitboard.EMPTY, new Direction[]{d})
+                    | slidingAttacks(square, Bitboard.EMPTY, new Direction[]{opposite(d)});
+            long between = Bitboard.EMPTY;
+            int x = Bitboard.rank(square) + d.x;
+            int y = Bitboard.file(square) + d.y;
+            while (Bitboard.isInBounds(x, y)) {
+                int target = Bitboard.square(x, y);
+                BETWEEN[square][target] = between;
+                LINE[square][target] = line;
+                between |= Bitboard.bit(target);
+                x += d.x;
+                y += d.y;
+            }
+        }
+    }
+
+    private static Direction opposite(Direction d) {
+        for (Direction candidate : Direction.STEPS) {
+            if (candidate.x == -d.x && candidate.y == -d.y) {
+                return candidate;
+            }
+        }
+        return Direction.N;
+    }
+
+    private static Magic findMagic(int square, Direction[] directions, SplittableRandom random) {
+        long mask = relevantOccupancy(square, directions);
+        int bits = Bitboard.count(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        long subset = Bitboard.EMPTY;
+        for (int i = 0; i < size; i++) { //walks every subset of the mask
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] usedInTrial = new int[size];
+        for (int trial = 1; ; trial++) {
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00_0000_0000_0000L) < 6) {
+                continue;
+            }
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (usedInTrial[index] != trial) {
+                    usedInTrial[index] = trial;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                return new Magic(mask, magic, 64 - bits, table);
+            }
+        }
+    }
+
+    //the last square of each ray never changes the attacks, so it is left out of the index
+    private static long relevantOccupancy(int square, Direction[] directions) {
+        long mask = Bitboard.EMPTY;
+        for (Direction d : directions) {
+            int x = Bitboard.rank(square) + d.x;
+            int y = Bitboard.file(square) + d.y;
+            while (Bitboard.isInBounds(x + d.x, y + d.y)) {
+                mask |= Bitboard.bit(Bitboard.square(x, y));
+                x += d.x;
+                y += d.y;
+            }
+        }
+        return mask;
+    }
+
+    static long slidingAttacks(int square, long occupancy, Direction[] directions) {
+        long attacks = Bitboard.EMPTY;
+        for (Direction d : directions) {
+            int x = Bitboard.rank(square) + d.x;
+            int y = Bitboard.file(square) + d.y;
+            while (Bitboard.isInBounds(x, y)) {
+                long bit = Bitboard.bit(Bitboard.square(x, y));
+                attacks |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                x += d.x;
+                y += d.y;
+            }
+        }
+        return attacks;
+    }
+
+    private record Magic(long mask, long magic, int shift, long[] table) {
+
+        long attacks(long occupancy) {
+            return table[(int) (((occupancy & mask) * magic) >>> shift)];
+        }
+    }
+}
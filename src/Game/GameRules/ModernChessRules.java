@@ -29,6 +29,12 @@ public class ModernChessRules implements ChessRules {
         currentPlayerIsInCheck = false;
     }
 
+    //plays on from a copy of the position, e.g. one read with BoardFactory.fromFen
+    public ModernChessRules(BoardState position) {
+        currentBoardState = new BoardState(position);
+        currentPlayerIsInCheck = isInCheck(currentBoardState.getCurrentTurn());
+    }
+
     @Override
     public MoveResult move(Position from, Position to) {
         Piece movingPiece = currentBoardState.getPiece(from);
@@ -48,6 +54,13 @@ public class ModernChessRules implements ChessRules {
     }
 
 
+    //a packed move from generateLegalMoves, promotions included
+    @Override
+    public MoveResult move(int move) {
+        MoveResult result = move(Bitboard.position(Move.from(move)), Bitboard.position(Move.to(move)));
+        return result == MoveResult.PROMOTION && Move.isPromotion(move) ? promote(Move.promotionType(move)) : result;
+    }
+
     private MoveResult checkMoveValidity(Piece movingPiece, Position to) {
         if (!isInBounds(to)) {
             return MoveResult.INVALID_OUT_OF_BOUNDS;
@@ -64,9 +77,9 @@ public class ModernChessRules implements ChessRules {
 
     private void executeCastling(Position from, Position to) {
         Direction castlingDirection = Direction.findDirection(from, to);
-        Position rookFrom = new Position(from.x(),
+        Position rookFrom = Position.of(from.x(),
                 castlingDirection == Direction.L ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND);
-        Position rookTo = new Position(to.x(), to.y() - castlingDirection.y);
+        Position rookTo = Position.of(to.x(), to.y() - castlingDirection.y);
         currentBoardState.movePiece(from, to);
         currentBoardState.movePiece(rookFrom, rookTo);
         currentBoardState.finishMove(to);
@@ -75,16 +88,20 @@ public class ModernChessRules implements ChessRules {
     }
 
     private MoveResult executeMovement(Piece movingPiece, Position from, Position to) {
-        currentBoardState.movePiece(from, to);
-        if(isEnPassant(to, movingPiece.getColor())){
-            currentBoardState.enPassantCapture(new Position(from.x(), to.y()));
+        if(!isEnPassant(to, movingPiece.getColor())){
+            if(!MoveGenerator.isLegalMove(currentBoardState, Bitboard.square(from), Bitboard.square(to))){
+                return MoveResult.INVALID_CHECKED;
+            }
+            currentBoardState.movePiece(from, to);
+            return MoveResult.VALID;
         }
-        if (movingPiece.getType() == PieceType.KING ?
-                isPositionUnderAttack(to, movingPiece.getColor()) : isInCheck(currentBoardState.getCurrentTurn())){
+        //en passant removes a second piece from the capturing rank, so it is still tried on the board
+        currentBoardState.movePiece(from, to);
+        currentBoardState.enPassantCapture(Position.of(from.x(), to.y()));
+        if (isInCheck(currentBoardState.getCurrentTurn())){
             currentBoardState.revertLastMove();
             return MoveResult.INVALID_CHECKED;
         }
-
         return MoveResult.VALID;
     }
 
@@ -105,20 +122,17 @@ public class ModernChessRules implements ChessRules {
 
     @Override
     public boolean isInCheck(PieceColor colorBeingAttacked) {
-        Piece king = currentBoardState.getKing(colorBeingAttacked);
-        return isPositionUnderAttack(king.getCurrentPos(), colorBeingAttacked);
+        return isPositionUnderAttack(Bitboard.position(currentBoardState.getKingSquare(colorBeingAttacked)),
+                colorBeingAttacked);
     }
 
     private MoveResult findValidMoveResult(PieceColor movingColor) {
         if (!currentPlayerIsInCheck) {
             return isStalemate(movingColor);
         }
-        Position kingPosition = currentBoardState.getKing(movingColor).getCurrentPos();
-        for (Direction d : Direction.values()) {
-            if (d == Direction.N){
-                continue;
-            }
-            Position positionAroundKing = new Position(kingPosition.x() + d.x, kingPosition.y() + d.y);
+        Position kingPosition = Bitboard.position(currentBoardState.getKingSquare(movingColor));
+        for (Direction d : Direction.STEPS) {
+            Position positionAroundKing = Position.of(kingPosition.x() + d.x, kingPosition.y() + d.y);
             if(isInBounds(positionAroundKing)
                 && currentBoardState.getPieceColor(positionAroundKing) != movingColor
                 && !isPositionUnderAttack(positionAroundKing,movingColor)){
@@ -129,18 +143,14 @@ public class ModernChessRules implements ChessRules {
     }
 
     private MoveResult findCheckmate(PieceColor color) {
-        Piece attackingPiece = null;
-        Position kingPosition = currentBoardState.getKing(color).getCurrentPos();
-        for (Piece piece :
-                currentBoardState.getPieceCollection()) {
-            if (piece.getColor() == color.getOppositeColor() && piece.isValidMove(this, kingPosition)) {
-                if (attackingPiece != null) { //2 pieces attacking the king = checkmate
-                    return MoveResult.CHECKMATE;
-                }
-                attackingPiece = piece;
-            }
+        int kingSquare = currentBoardState.getKingSquare(color);
+        Position kingPosition = Bitboard.position(kingSquare);
+        long attackers = currentBoardState.getAttackers(kingSquare, color.getOppositeColor());
+        assert attackers != Bitboard.EMPTY;
+        if (Bitboard.count(attackers) > 1) { //2 pieces attacking the king = checkmate
+            return MoveResult.CHECKMATE;
         }
-        assert attackingPiece != null;
+        Piece attackingPiece = currentBoardState.getPiece(Bitboard.firstSquare(attackers));
         if (isPositionUnderAttack(attackingPiece.getCurrentPos(), attackingPiece.getColor())) {
             if (Math.abs(attackingPiece.getCurrentPos().x() - kingPosition.x()) <= BOARD_LOWER_BOUND
                     && Math.abs(attackingPiece.getCurrentPos().y() - kingPosition.y()) <= BOARD_LOWER_BOUND) {
@@ -152,20 +162,20 @@ public class ModernChessRules implements ChessRules {
             return MoveResult.CHECKMATE;
         }
         Direction d = Direction.findDirection(attackingPiece.getCurrentPos(), kingPosition);
-        Position pos = new Position(attackingPiece.getCurrentPos().x() + d.x, attackingPiece.getCurrentPos().y() + d.y);
+        Position pos = Position.of(attackingPiece.getCurrentPos().x() + d.x, attackingPiece.getCurrentPos().y() + d.y);
         while (!pos.equals(kingPosition)) {
             if (isPositionUnderAttack(pos, attackingPiece.getColor(), true)) {
                 return MoveResult.CHECK;
             }
-            pos = new Position(pos.x() + d.x, pos.y() + d.y);
+            pos = Position.of(pos.x() + d.x, pos.y() + d.y);
         }
         return MoveResult.CHECKMATE;
     }
 
     private MoveResult isStalemate(PieceColor color) {
-        for (Piece p :
-                currentBoardState.getPieceCollection()) {
-            if (p.getColor() == color && p.hasValidMove(this)) {
+        for (long pieces = currentBoardState.getColorOccupancy(color); pieces != Bitboard.EMPTY;
+             pieces = Bitboard.withoutFirstSquare(pieces)) {
+            if (currentBoardState.getPiece(Bitboard.firstSquare(pieces)).hasValidMove(this)) {
                 return MoveResult.VALID;
             }
         }
@@ -191,7 +201,7 @@ public class ModernChessRules implements ChessRules {
         if (pos.x() != (color == PieceColor.WHITE ? 6 : 3)) {
             return false;
         }
-        Piece targetPiece = currentBoardState.getPiece(new Position(color == PieceColor.WHITE ? 5 : 4, pos.y()));
+        Piece targetPiece = currentBoardState.getPiece(Position.of(color == PieceColor.WHITE ? 5 : 4, pos.y()));
         if (targetPiece == null) {
             return false;
         }
@@ -209,15 +219,31 @@ public class ModernChessRules implements ChessRules {
 
 
     public boolean isPositionUnderAttack(Position pos, PieceColor colorBeingAttacked, boolean ignoreKing) {
-        for (Piece piece :
-                currentBoardState.getPieceCollection()) {
-            if (piece.getColor() == colorBeingAttacked) {
-                continue;
-            }
-            if (ignoreKing && piece.getType() == PieceType.KING) {
-                continue;
+        if (!isInBounds(pos)) {
+            return false;
+        }
+        PieceColor attacker = colorBeingAttacked.getOppositeColor();
+        int square = Bitboard.square(pos);
+        if (!ignoreKing) {
+            return currentBoardState.isSquareAttacked(square, attacker);
+        }
+        //asks whether a piece other than the king can move to pos, so pawns are checked by their own move rules
+        long attackers = currentBoardState.getAttackers(square, attacker)
+                & ~currentBoardState.getBitboard(PieceType.KING, attacker);
+        long pawns = currentBoardState.getBitboard(PieceType.PAWN, attacker);
+        if ((attackers & ~pawns) != Bitboard.EMPTY) {
+            return true;
+        }
+        int behind = attacker == PieceColor.WHITE ? -Bitboard.BOARD_SIZE : Bitboard.BOARD_SIZE;
+        long pawnCandidates = attackers;
+        for (int distance = 1; distance <= 2; distance++) {
+            int from = square + behind * distance;
+            if (from >= 0 && from < Bitboard.SQUARE_COUNT) {
+                pawnCandidates |= pawns & Bitboard.bit(from);
             }
-            if (piece.isValidMove(this, pos, true)) {
+        }
+        for (; pawnCandidates != Bitboard.EMPTY; pawnCandidates = Bitboard.withoutFirstSquare(pawnCandidates)) {
+            if (currentBoardState.getPiece(Bitboard.firstSquare(pawnCandidates)).isValidMove(this, pos, true)) {
                 return true;
             }
         }
@@ -235,7 +261,7 @@ public class ModernChessRules implements ChessRules {
             return false;
         }
 
-        Position pos = new Position(color == PieceColor.WHITE ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND,
+        Position pos = Position.of(color == PieceColor.WHITE ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND,
                 dir == Direction.L ? BOARD_LOWER_BOUND : BOARD_UPPER_BOUND);
         Piece cornerPiece = currentBoardState.getPiece(pos);
         if (cornerPiece == null) {
@@ -252,13 +278,7 @@ public class ModernChessRules implements ChessRules {
         PieceTypeColor[][] visualBoard = new PieceTypeColor[BOARD_UPPER_BOUND][BOARD_UPPER_BOUND];
         for (int x = 0; x < BOARD_UPPER_BOUND; x++) {
             for (int y = 0; y < BOARD_UPPER_BOUND; y++) {
-                Position pos = new Position(x + 1, y + 1);
-                currentBoardState.getPieceTypeColor(pos);
-                if (currentBoardState.getPiece(pos) != null) {
-                    visualBoard[x][y] = getPieceTypeColor(pos);
-                } else {
-                    visualBoard[x][y] = new PieceTypeColor(PieceType.NONE, PieceColor.NONE);
-                }
+                visualBoard[x][y] = currentBoardState.getPieceTypeColor(Bitboard.square(x + 1, y + 1));
             }
         }
         return visualBoard;
@@ -279,6 +299,34 @@ public class ModernChessRules implements ChessRules {
         return currentBoardState.getCurrentTurn();
     }
 
+    @Override
+    public long getPositionKey() {
+        return currentBoardState.getZobristKey();
+    }
+
+    @Override
+    public long getOccupancy() {
+        return currentBoardState.getOccupancy();
+    }
+
+    @Override
+    public long getColorOccupancy(PieceColor color) {
+        return currentBoardState.getColorOccupancy(color);
+    }
+
+    @Override
+    public BoardState copyBoardState() {
+        return new BoardState(currentBoardState);
+    }
+
+    @Override
+    public int generateLegalMoves(int[] moveBuffer) {
+        if (currentBoardState.hasPromotionTarget()) {
+            return 0;
+        }
+        return MoveGenerator.generateLegalMoves(currentBoardState, moveBuffer, 0);
+    }
+
     @Override
     public PieceColor getPieceColor(Position pos) {
         return currentBoardState.getPieceColor(pos);
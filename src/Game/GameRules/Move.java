@@ -0,0 +1,89 @@
+package Game.GameRules;
+
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Moves are packed into a single int so move lists can live in reusable int[] buffers:
+ * bits 0-5 origin square, bits 6-11 destination square, bits 12-14 promotion piece type,
+ * bits 16-17 special move kind and bit 18 set for captures.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+    public static final int MAX_LEGAL_MOVES = 256;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final int KIND_SHIFT = 16;
+    private static final int KIND_MASK = 0x3;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    public static final int KIND_NORMAL = 0;
+    public static final int KIND_DOUBLE_PUSH = 1;
+    public static final int KIND_EN_PASSANT = 2;
+    public static final int KIND_CASTLING = 3;
+    public static final int CAPTURE_FLAG = 1 << 18;
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << TO_SHIFT);
+    }
+
+    public static int of(int from, int to, int kind) {
+        return from | (to << TO_SHIFT) | (kind << KIND_SHIFT);
+    }
+
+    public static int capture(int from, int to) {
+        return from | (to << TO_SHIFT) | CAPTURE_FLAG;
+    }
+
+    public static int promotion(int from, int to, PieceType promotionTo, boolean capture) {
+        return from | (to << TO_SHIFT) | (promotionTo.ordinal() << PROMOTION_SHIFT) | (capture ? CAPTURE_FLAG : 0);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int kind(int move) {
+        return (move >>> KIND_SHIFT) & KIND_MASK;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE_FLAG) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    public static PieceType promotionType(int move) {
+        return PIECE_TYPES[(move >>> PROMOTION_SHIFT) & PROMOTION_MASK];
+    }
+
+    public static String toString(int move) {
+        String text = squareName(from(move)) + squareName(to(move));
+        return isPromotion(move) ? text + promotionLetter(promotionType(move)) : text;
+    }
+
+    private static String squareName(int square) {
+        return "" + (char) ('a' + Bitboard.file(square) - 1) + Bitboard.rank(square);
+    }
+
+    private static char promotionLetter(PieceType type) {
+        return switch (type) {
+            case ROOK -> 'r';
+            case KNIGHT -> 'n';
+            case BISHOP -> 'b';
+            default -> 'q';
+        };
+    }
+}
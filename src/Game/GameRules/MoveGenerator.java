@@ -0,0 +1,262 @@
+package Game.GameRules;
+
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+public final class MoveGenerator {
+
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    private static final long RANK_1 = 0x00000000000000FFL;
+    private static final long RANK_8 = 0xFF00000000000000L;
+
+    private MoveGenerator() {
+    }
+
+    public static int generateLegalMoves(BoardState state, int[] moves, int offset) {
+        PieceColor us = state.getCurrentTurn();
+        PieceColor them = us.getOppositeColor();
+        long own = state.getColorOccupancy(us);
+        long enemy = state.getColorOccupancy(them);
+        long occupancy = state.getOccupancy();
+        int kingSquare = state.getKingSquare(us);
+        int count = offset;
+
+        count = generatePawnMoves(state, moves, count, us, kingSquare, enemy, occupancy);
+
+        for (long knights = state.getBitboard(PieceType.KNIGHT, us); knights != Bitboard.EMPTY;
+             knights = Bitboard.withoutFirstSquare(knights)) {
+            int from = Bitboard.firstSquare(knights);
+            count = addPieceMoves(state, moves, count, from, knightAttacks(from) & ~own, kingSquare, enemy, occupancy);
+        }
+        for (long bishops = state.getBitboard(PieceType.BISHOP, us); bishops != Bitboard.EMPTY;
+             bishops = Bitboard.withoutFirstSquare(bishops)) {
+            int from = Bitboard.firstSquare(bishops);
+            count = addPieceMoves(state, moves, count, from, bishopAttacks(from, occupancy) & ~own,
+                    kingSquare, enemy, occupancy);
+        }
+        for (long rooks = state.getBitboard(PieceType.ROOK, us); rooks != Bitboard.EMPTY;
+             rooks = Bitboard.withoutFirstSquare(rooks)) {
+            int from = Bitboard.firstSquare(rooks);
+            count = addPieceMoves(state, moves, count, from, rookAttacks(from, occupancy) & ~own,
+                    kingSquare, enemy, occupancy);
+        }
+        for (long queens = state.getBitboard(PieceType.QUEEN, us); queens != Bitboard.EMPTY;
+             queens = Bitboard.withoutFirstSquare(queens)) {
+            int from = Bitboard.firstSquare(queens);
+            count = addPieceMoves(state, moves, count, from,
+                    (rookAttacks(from, occupancy) | bishopAttacks(from, occupancy)) & ~own, kingSquare, enemy, occupancy);
+        }
+
+        long kingOccupancy = occupancy & ~Bitboard.bit(kingSquare);
+        for (long targets = kingAttacks(kingSquare) & ~own; targets != Bitboard.EMPTY;
+             targets = Bitboard.withoutFirstSquare(targets)) {
+            int to = Bitboard.firstSquare(targets);
+            long toBit = Bitboard.bit(to);
+            if (!isSquareAttacked(state, to, them, kingOccupancy, ~toBit)) {
+                moves[count++] = (enemy & toBit) != 0 ? Move.capture(kingSquare, to) : Move.of(kingSquare, to);
+            }
+        }
+        count = generateCastling(state, moves, count, us, kingSquare, occupancy);
+
+        return count - offset;
+    }
+
+    public static boolean isInCheck(BoardState state, PieceColor color) {
+        int kingSquare = state.getKingSquare(color);
+        return kingSquare != BoardState.NO_SQUARE && isSquareAttacked(state, kingSquare,
+                color.getOppositeColor(), state.getOccupancy(), -1L);
+    }
+
+    private static int addPieceMoves(BoardState state, int[] moves, int count, int from, long targets,
+                                     int kingSquare, long enemy, long occupancy) {
+        for (; targets != Bitboard.EMPTY; targets = Bitboard.withoutFirstSquare(targets)) {
+            int to = Bitboard.firstSquare(targets);
+            boolean capture = (enemy & Bitboard.bit(to)) != 0;
+            if (leavesKingSafe(state, from, to, kingSquare, occupancy, Bitboard.EMPTY)) {
+                moves[count++] = capture ? Move.capture(from, to) : Move.of(from, to);
+            }
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(BoardState state, int[] moves, int count, PieceColor us,
+                                         int kingSquare, long enemy, long occupancy) {
+        int forward = us == PieceColor.WHITE ? 8 : -8;
+        int startRank = us == PieceColor.WHITE ? 2 : 7;
+        long promotionRank = us == PieceColor.WHITE ? RANK_8 : RANK_1;
+        int enPassantSquare = state.getEnPassantSquare();
+
+        for (long pawns = state.getBitboard(PieceType.PAWN, us); pawns != Bitboard.EMPTY;
+             pawns = Bitboard.withoutFirstSquare(pawns)) {
+            int from = Bitboard.firstSquare(pawns);
+            int to = from + forward;
+            if (to >= 0 && to < Bitboard.SQUARE_COUNT && !Bitboard.contains(occupancy, to)) {
+                if (leavesKingSafe(state, from, to, kingSquare, occupancy, Bitboard.EMPTY)) {
+                    count = addPawnMove(moves, count, from, to, promotionRank, false);
+                }
+                int doubleTo = to + forward;
+                if (Bitboard.rank(from) == startRank && !Bitboard.contains(occupancy, doubleTo)
+                        && leavesKingSafe(state, from, doubleTo, kingSquare, occupancy, Bitboard.EMPTY)) {
+                    moves[count++] = Move.of(from, doubleTo, Move.KIND_DOUBLE_PUSH);
+                }
+            }
+            for (long captures = pawnAttacks(from, us) & enemy; captures != Bitboard.EMPTY;
+                 captures = Bitboard.withoutFirstSquare(captures)) {
+                int target = Bitboard.firstSquare(captures);
+                if (leavesKingSafe(state, from, target, kingSquare, occupancy, Bitboard.EMPTY)) {
+                    count = addPawnMove(moves, count, from, target, promotionRank, true);
+                }
+            }
+            if (enPassantSquare != BoardState.NO_SQUARE && Bitboard.contains(pawnAttacks(from, us), enPassantSquare)) {
+                int capturedSquare = enPassantSquare - forward;
+                if (leavesKingSafe(state, from, enPassantSquare, kingSquare, occupancy, Bitboard.bit(capturedSquare))) {
+                    moves[count++] = Move.of(from, enPassantSquare, Move.KIND_EN_PASSANT) | Move.CAPTURE_FLAG;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int addPawnMove(int[] moves, int count, int from, int to, long promotionRank, boolean capture) {
+        if (Bitboard.contains(promotionRank, to)) {
+            for (PieceType type : PROMOTION_TYPES) {
+                moves[count++] = Move.promotion(from, to, type, capture);
+            }
+        } else {
+            moves[count++] = capture ? Move.capture(from, to) : Move.of(from, to);
+        }
+        return count;
+    }
+
+    private static int generateCastling(BoardState state, int[] moves, int count, PieceColor us,
+                                        int kingSquare, long occupancy) {
+        int rights = state.getCastlingRights() & (us == PieceColor.WHITE ?
+                BoardState.WHITE_KINGSIDE | BoardState.WHITE_QUEENSIDE : BoardState.BLACK_KINGSIDE | BoardState.BLACK_QUEENSIDE);
+        if (rights == 0) {
+            return count;
+        }
+        PieceColor them = us.getOppositeColor();
+        if (isSquareAttacked(state, kingSquare, them, occupancy, -1L)) {
+            return count;
+        }
+        if ((rights & (BoardState.WHITE_KINGSIDE | BoardState.BLACK_KINGSIDE)) != 0
+                && (occupancy & (Bitboard.bit(kingSquare + 1) | Bitboard.bit(kingSquare + 2))) == 0
+                && !isSquareAttacked(state, kingSquare + 1, them, occupancy, -1L)
+                && !isSquareAttacked(state, kingSquare + 2, them, occupancy, -1L)) {
+            moves[count++] = Move.of(kingSquare, kingSquare + 2, Move.KIND_CASTLING);
+        }
+        if ((rights & (BoardState.WHITE_QUEENSIDE | BoardState.BLACK_QUEENSIDE)) != 0
+                && (occupancy & (Bitboard.bit(kingSquare - 1) | Bitboard.bit(kingSquare - 2)
+                | Bitboard.bit(kingSquare - 3))) == 0
+                && !isSquareAttacked(state, kingSquare - 1, them, occupancy, -1L)
+                && !isSquareAttacked(state, kingSquare - 2, them, occupancy, -1L)) {
+            moves[count++] = Move.of(kingSquare, kingSquare - 2, Move.KIND_CASTLING);
+        }
+        return count;
+    }
+
+    //own pieces standing alone between their king and an enemy slider on the same line
+    public static long pinnedPieces(BoardState state, PieceColor color) {
+        int kingSquare = state.getKingSquare(color);
+        PieceColor them = color.getOppositeColor();
+        long queens = state.getBitboard(PieceType.QUEEN, them);
+        long snipers = (rookAttacks(kingSquare, Bitboard.EMPTY) & (state.getBitboard(PieceType.ROOK, them) | queens))
+                | (bishopAttacks(kingSquare, Bitboard.EMPTY) & (state.getBitboard(PieceType.BISHOP, them) | queens));
+        long own = state.getColorOccupancy(color);
+        long pinned = Bitboard.EMPTY;
+        for (; snipers != Bitboard.EMPTY; snipers = Bitboard.withoutFirstSquare(snipers)) {
+            long blockers = MagicBitboards.between(kingSquare, Bitboard.firstSquare(snipers)) & state.getOccupancy();
+            if (Bitboard.count(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    //squares a non-king move must land on to answer a check: everything when not in check, nothing in double check
+    public static long checkMask(BoardState state, PieceColor color) {
+        int kingSquare = state.getKingSquare(color);
+        long checkers = attackersTo(state, kingSquare, color.getOppositeColor(), state.getOccupancy());
+        if (checkers == Bitboard.EMPTY) {
+            return ~Bitboard.EMPTY;
+        } else if (Bitboard.count(checkers) > 1) {
+            return Bitboard.EMPTY;
+        }
+        return checkers | MagicBitboards.between(kingSquare, Bitboard.firstSquare(checkers));
+    }
+
+    //decides whether moving from -> to leaves the mover's king safe without changing the board,
+    //en passant and castling are not covered since they move more than one piece
+    public static boolean isLegalMove(BoardState state, int from, int to) {
+        PieceColor us = state.getPieceColor(from);
+        int kingSquare = state.getKingSquare(us);
+        if (from == kingSquare) {
+            return !isSquareAttacked(state, to, us.getOppositeColor(), state.getOccupancy() & ~Bitboard.bit(from),
+                    ~Bitboard.bit(to));
+        }
+        if (!Bitboard.contains(checkMask(state, us), to)) {
+            return false;
+        }
+        return !Bitboard.contains(pinnedPieces(state, us), from)
+                || Bitboard.contains(MagicBitboards.line(kingSquare, from), to);
+    }
+
+    private static boolean leavesKingSafe(BoardState state, int from, int to, int kingSquare, long occupancy,
+                                          long removedSquares) {
+        long toBit = Bitboard.bit(to);
+        long occupancyAfter = ((occupancy & ~Bitboard.bit(from)) | toBit) & ~removedSquares;
+        return !isSquareAttacked(state, kingSquare, state.getCurrentTurn().getOppositeColor(), occupancyAfter,
+                ~(toBit | removedSquares));
+    }
+
+    static boolean isSquareAttacked(BoardState state, int square, PieceColor attacker, long occupancy,
+                                    long attackerMask) {
+        long attackers = state.getColorOccupancy(attacker) & attackerMask;
+        if ((pawnAttacks(square, attacker.getOppositeColor()) & state.getBitboard(PieceType.PAWN, attacker) & attackers) != 0) {
+            return true;
+        }
+        if ((knightAttacks(square) & state.getBitboard(PieceType.KNIGHT, attacker) & attackers) != 0) {
+            return true;
+        }
+        if ((kingAttacks(square) & state.getBitboard(PieceType.KING, attacker) & attackers) != 0) {
+            return true;
+        }
+        long queens = state.getBitboard(PieceType.QUEEN, attacker);
+        long diagonalSliders = (state.getBitboard(PieceType.BISHOP, attacker) | queens) & attackers;
+        if (diagonalSliders != 0 && (bishopAttacks(square, occupancy) & diagonalSliders) != 0) {
+            return true;
+        }
+        long orthogonalSliders = (state.getBitboard(PieceType.ROOK, attacker) | queens) & attackers;
+        return orthogonalSliders != 0 && (rookAttacks(square, occupancy) & orthogonalSliders) != 0;
+    }
+
+    //probes outward from the square like a super-piece, so the cost does not depend on the piece count
+    public static long attackersTo(BoardState state, int square, PieceColor attacker, long occupancy) {
+        long queens = state.getBitboard(PieceType.QUEEN, attacker);
+        return (pawnAttacks(square, attacker.getOppositeColor()) & state.getBitboard(PieceType.PAWN, attacker))
+                | (knightAttacks(square) & state.getBitboard(PieceType.KNIGHT, attacker))
+                | (kingAttacks(square) & state.getBitboard(PieceType.KING, attacker))
+                | (bishopAttacks(square, occupancy) & (state.getBitboard(PieceType.BISHOP, attacker) | queens))
+                | (rookAttacks(square, occupancy) & (state.getBitboard(PieceType.ROOK, attacker) | queens));
+    }
+
+    static long pawnAttacks(int square, PieceColor color) {
+        return LeaperAttacks.pawnAttacks(square, color);
+    }
+
+    static long knightAttacks(int square) {
+        return LeaperAttacks.knightAttacks(square);
+    }
+
+    static long kingAttacks(int square) {
+        return LeaperAttacks.kingAttacks(square);
+    }
+
+    static long rookAttacks(int square, long occupancy) {
+        return MagicBitboards.rookAttacks(square, occupancy);
+    }
+
+    static long bishopAttacks(int square, long occupancy) {
+        return MagicBitboards.bishopAttacks(square, occupancy);
+    }
+}
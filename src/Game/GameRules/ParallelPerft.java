@@ -0,0 +1,70 @@
+package Game.GameRules;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelPerft {
+
+    private static final int DEFAULT_SPLIT_PLIES = 2;
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    private final BoardState position;
+    private final ForkJoinPool pool;
+    private final int splitPlies;
+
+    public ParallelPerft(BoardState position) {
+        this(position, ForkJoinPool.commonPool(), DEFAULT_SPLIT_PLIES);
+    }
+
+    public ParallelPerft(BoardState position, ForkJoinPool pool, int splitPlies) {
+        this.position = new BoardState(position);
+        this.pool = pool;
+        this.splitPlies = splitPlies;
+    }
+
+    public Perft.PerftResult run(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth must not be negative");
+        }
+        long start = System.nanoTime();
+        long nodes = pool.invoke(new PerftTask(new BoardState(position), depth, splitPlies));
+        return new Perft.PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    //splits the upper plies into one task per move, each owning a copy of the board it searches
+    private static class PerftTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final BoardState board;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(BoardState board, int depth, int splitPlies) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= SEQUENTIAL_DEPTH) {
+                return new Perft(board, depth).run(depth).nodes();
+            }
+            int[] moves = new int[Move.MAX_LEGAL_MOVES];
+            int moveCount = MoveGenerator.generateLegalMoves(board, moves, 0);
+            PerftTask[] tasks = new PerftTask[moveCount];
+            for (int i = 0; i < moveCount; i++) {
+                BoardState child = new BoardState(board);
+                child.makeMove(moves[i]);
+                tasks[i] = new PerftTask(child, depth - 1, splitPlies - 1);
+            }
+            invokeAll(tasks);
+            long nodes = 0;
+            for (PerftTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
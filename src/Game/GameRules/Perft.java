@@ -0,0 +1,81 @@
+package Game.GameRules;
+
+import java.io.PrintStream;
+
+public class Perft {
+
+    private final BoardState board;
+    private final int[][] moveBuffers;
+
+    public Perft(BoardState position, int maxDepth) {
+        board = new BoardState(position);
+        moveBuffers = new int[maxDepth + 1][Move.MAX_LEGAL_MOVES];
+    }
+
+    public PerftResult run(int depth) {
+        checkDepth(depth);
+        long start = System.nanoTime();
+        long nodes = depth == 0 ? 1 : countNodes(0, depth);
+        return new PerftResult(depth, nodes, System.nanoTime() - start);
+    }
+
+    public PerftResult divide(int depth, PrintStream out) {
+        checkDepth(depth);
+        if (depth == 0) {
+            return run(0);
+        }
+        long start = System.nanoTime();
+        int[] rootMoves = moveBuffers[0];
+        int moveCount = MoveGenerator.generateLegalMoves(board, rootMoves, 0);
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            long moveNodes = 1;
+            if (depth > 1) {
+                board.makeMove(rootMoves[i]);
+                moveNodes = countNodes(1, depth - 1);
+                board.unmakeMove();
+            }
+            out.println(Move.toString(rootMoves[i]) + ": " + moveNodes);
+            nodes += moveNodes;
+        }
+        PerftResult result = new PerftResult(depth, nodes, System.nanoTime() - start);
+        out.println();
+        out.println("Moves: " + moveCount);
+        out.println(result);
+        return result;
+    }
+
+    private long countNodes(int ply, int depth) {
+        int[] moves = moveBuffers[ply];
+        int moveCount = MoveGenerator.generateLegalMoves(board, moves, 0);
+        if (depth == 1) {
+            return moveCount; //bulk counting: the leaves are the legal moves themselves
+        }
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            nodes += countNodes(ply + 1, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private void checkDepth(int depth) {
+        if (depth < 0 || depth >= moveBuffers.length) {
+            throw new IllegalArgumentException("Perft depth must be between 0 and " + (moveBuffers.length - 1));
+        }
+    }
+
+    public record PerftResult(int depth, long nodes, long nanos) {
+
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Depth " + depth + ": " + nodes + " nodes in " + nanos / 1_000_000 + " ms ("
+                    + nodesPerSecond() + " nodes/s)";
+        }
+    }
+}
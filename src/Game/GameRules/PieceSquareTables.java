@@ -0,0 +1,132 @@
+package Game.GameRules;
+
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Material plus piece-square bonuses for the middlegame and the endgame, from white's point of view so black
+ * pieces count negative. BoardState adds and removes these as pieces come and go, the evaluation blends the two
+ * sums by the game phase left on the board.
+ *
+ * The tables below are drawn from white's side with the eighth rank on top.
+ */
+public final class PieceSquareTables {
+
+    public static final int MAX_PHASE = 24; //all minor pieces, rooks and queens on the board
+
+    //indexed by PieceType ordinal
+    private static final int[] MIDDLEGAME_VALUES = {0, 100, 500, 320, 330, 900, 0};
+    private static final int[] ENDGAME_VALUES = {0, 120, 520, 290, 310, 920, 0};
+    private static final int[] PHASE_WEIGHTS = {0, 0, 2, 1, 1, 4, 0};
+
+    private static final int[] PAWN = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            10,  10,  20,  30,  30,  20,  10,  10,
+             5,   5,  10,  25,  25,  10,   5,   5,
+             0,   0,   0,  20,  20,   0,   0,   0,
+             5,  -5, -10,   0,   0, -10,  -5,   5,
+             5,  10,  10, -20, -20,  10,  10,   5,
+             0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] PAWN_ENDGAME = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+            80,  80,  80,  80,  80,  80,  80,  80,
+            50,  50,  50,  50,  50,  50,  50,  50,
+            30,  30,  30,  30,  30,  30,  30,  30,
+            15,  15,  15,  15,  15,  15,  15,  15,
+             5,   5,   5,   5,   5,   5,   5,   5,
+             0,   0,   0,   0,   0,   0,   0,   0,
+             0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] KNIGHT = {
+           -50, -40, -30, -30, -30, -30, -40, -50,
+           -40, -20,   0,   0,   0,   0, -20, -40,
+           -30,   0,  10,  15,  15,  10,   0, -30,
+           -30,   5,  15,  20,  20,  15,   5, -30,
+           -30,   0,  15,  20,  20,  15,   0, -30,
+           -30,   5,  10,  15,  15,  10,   5, -30,
+           -40, -20,   0,   5,   5,   0, -20, -40,
+           -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP = {
+           -20, -10, -10, -10, -10, -10, -10, -20,
+           -10,   0,   0,   0,   0,   0,   0, -10,
+           -10,   0,   5,  10,  10,   5,   0, -10,
+           -10,   5,   5,  10,  10,   5,   5, -10,
+           -10,   0,  10,  10,  10,  10,   0, -10,
+           -10,  10,  10,  10,  10,  10,  10, -10,
+           -10,   5,   0,   0,   0,   0,   5, -10,
+           -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK = {
+             0,   0,   0,   0,   0,   0,   0,   0,
+             5,  10,  10,  10,  10,  10,  10,   5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+            -5,   0,   0,   0,   0,   0,   0,  -5,
+             0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] QUEEN = {
+           -20, -10, -10,  -5,  -5, -10, -10, -20,
+           -10,   0,   0,   0,   0,   0,   0, -10,
+           -10,   0,   5,   5,   5,   5,   0, -10,
+            -5,   0,   5,   5,   5,   5,   0,  -5,
+             0,   0,   5,   5,   5,   5,   0,  -5,
+           -10,   5,   5,   5,   5,   5,   0, -10,
+           -10,   0,   5,   0,   0,   0,   0, -10,
+           -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] KING = {
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -30, -40, -40, -50, -50, -40, -40, -30,
+           -20, -30, -30, -40, -40, -30, -30, -20,
+           -10, -20, -20, -20, -20, -20, -20, -10,
+            20,  20,   0,   0,   0,   0,  20,  20,
+            20,  30,  10,   0,   0,  10,  30,  20};
+    private static final int[] KING_ENDGAME = {
+           -50, -40, -30, -20, -20, -30, -40, -50,
+           -30, -20, -10,   0,   0, -10, -20, -30,
+           -30, -10,  20,  30,  30,  20, -10, -30,
+           -30, -10,  30,  40,  40,  30, -10, -30,
+           -30, -10,  30,  40,  40,  30, -10, -30,
+           -30, -10,  20,  30,  30,  20, -10, -30,
+           -30, -30,   0,   0,   0,   0, -30, -30,
+           -50, -30, -30, -30, -30, -30, -30, -50};
+
+    //indexed by PieceType ordinal, pieces other than pawns and kings keep their squares in the endgame
+    private static final int[][] MIDDLEGAME_TABLES = {null, PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING};
+    private static final int[][] ENDGAME_TABLES = {null, PAWN_ENDGAME, ROOK, KNIGHT, BISHOP, QUEEN, KING_ENDGAME};
+
+    private static final int[][] MIDDLEGAME = new int[BoardState.BITBOARD_COUNT][Bitboard.SQUARE_COUNT];
+    private static final int[][] ENDGAME = new int[BoardState.BITBOARD_COUNT][Bitboard.SQUARE_COUNT];
+
+    static {
+        PieceType[] types = PieceType.values();
+        for (PieceColor color : new PieceColor[]{PieceColor.WHITE, PieceColor.BLACK}) {
+            for (int type = PieceType.PAWN.ordinal(); type < types.length; type++) {
+                int index = color.ordinal() * types.length + type;
+                int sign = color == PieceColor.WHITE ? 1 : -1;
+                for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+                    //the tables list the eighth rank first, which is where black starts
+                    int tableSquare = color == PieceColor.WHITE ? square ^ 56 : square;
+                    MIDDLEGAME[index][square] = sign * (MIDDLEGAME_VALUES[type] + MIDDLEGAME_TABLES[type][tableSquare]);
+                    ENDGAME[index][square] = sign * (ENDGAME_VALUES[type] + ENDGAME_TABLES[type][tableSquare]);
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    public static int middlegame(int bitboardIndex, int square) {
+        return MIDDLEGAME[bitboardIndex][square];
+    }
+
+    public static int endgame(int bitboardIndex, int square) {
+        return ENDGAME[bitboardIndex][square];
+    }
+
+    public static int phaseWeight(PieceType type) {
+        return PHASE_WEIGHTS[type.ordinal()];
+    }
+}
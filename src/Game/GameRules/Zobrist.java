@@ -0,0 +1,50 @@
+package Game.GameRules;
+
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+
+    private static final long SEED = 0x5EED_C4E5_5L;
+    private static final int CASTLING_COMBINATIONS = 16;
+
+    private static final long[][] PIECE_SQUARE_KEYS;
+    private static final long[] CASTLING_KEYS = new long[CASTLING_COMBINATIONS];
+    private static final long[] EN_PASSANT_FILE_KEYS = new long[Bitboard.BOARD_SIZE];
+    private static final long BLACK_TO_MOVE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        PIECE_SQUARE_KEYS = new long[BoardState.BITBOARD_COUNT][Bitboard.SQUARE_COUNT];
+        for (long[] keys : PIECE_SQUARE_KEYS) {
+            for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING_COMBINATIONS; i++) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < Bitboard.BOARD_SIZE; i++) {
+            EN_PASSANT_FILE_KEYS[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int bitboardIndex, int square) {
+        return PIECE_SQUARE_KEYS[bitboardIndex][square];
+    }
+
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    public static long enPassant(int enPassantSquare) {
+        return enPassantSquare == BoardState.NO_SQUARE ? 0L : EN_PASSANT_FILE_KEYS[enPassantSquare & 7];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE_KEY;
+    }
+}
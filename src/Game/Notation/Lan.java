@@ -0,0 +1,87 @@
+package Game.Notation;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Long algebraic notation as used by UCI: origin and target square followed by a lowercase promotion letter,
+ * castling written as the king's move. Reading also accepts the longer written forms such as Ng1-f3, e5xd6
+ * and e7-e8=Q, where a piece letter has to name the piece on the origin square.
+ */
+public final class Lan {
+
+    private static final String PIECE_LETTERS = "NBRQK";
+    private static final PieceType[] LETTER_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+            PieceType.QUEEN, PieceType.KING};
+
+    private Lan() {
+    }
+
+    public static String toLan(int move) {
+        return Move.toString(move);
+    }
+
+    public static int parse(BoardState state, CharSequence text) {
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        return parse(state, moves, MoveGenerator.generateLegalMoves(state, moves, 0), text);
+    }
+
+    //returns Move.NONE when the text is not a legal move in long algebraic notation
+    public static int parse(BoardState state, int[] legalMoves, int legalMoveCount, CharSequence text) {
+        int length = text.length();
+        while (length > 0 && (text.charAt(length - 1) == '+' || text.charAt(length - 1) == '#')) {
+            length--;
+        }
+        int letter = length > 0 ? PIECE_LETTERS.indexOf(text.charAt(0)) : -1;
+        int index = letter >= 0 ? 1 : 0;
+        if (index + 4 > length || !isSquare(text, index)) {
+            return Move.NONE;
+        }
+        int from = square(text, index);
+        index += 2;
+        if (text.charAt(index) == '-' || text.charAt(index) == 'x') {
+            index++;
+        }
+        if (index + 2 > length || !isSquare(text, index)) {
+            return Move.NONE;
+        }
+        int to = square(text, index);
+        index += 2;
+        if (index < length && text.charAt(index) == '=') {
+            index++;
+        }
+        PieceType promotion = PieceType.NONE;
+        if (index < length) {
+            promotion = switch (Character.toLowerCase(text.charAt(index++))) {
+                case 'n' -> PieceType.KNIGHT;
+                case 'b' -> PieceType.BISHOP;
+                case 'r' -> PieceType.ROOK;
+                case 'q' -> PieceType.QUEEN;
+                default -> null;
+            };
+        }
+        if (promotion == null || index != length) {
+            return Move.NONE;
+        }
+        for (int i = 0; i < legalMoveCount; i++) {
+            int move = legalMoves[i];
+            if (Move.from(move) == from && Move.to(move) == to && Move.promotionType(move) == promotion) {
+                return letter < 0 || state.getPieceType(from) == LETTER_TYPES[letter] ? move : Move.NONE;
+            }
+        }
+        return Move.NONE;
+    }
+
+    private static boolean isSquare(CharSequence text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+    }
+
+    private static int square(CharSequence text, int index) {
+        return Bitboard.square(text.charAt(index + 1) - '0', text.charAt(index) - 'a' + 1);
+    }
+}
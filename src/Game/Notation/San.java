@@ -0,0 +1,213 @@
+package Game.Notation;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Pieces.PieceInfo.PieceType;
+
+/*
+ * Standard Algebraic Notation. A move is read into the moving piece, its target square, the optional origin
+ * file and rank and the promotion, then matched against the legal moves in a single pass. A capture mark must
+ * match an actual capture and pawn captures need one; check and mate suffixes and annotation glyphs are
+ * accepted but not required. Writing a move also takes a
+ * single pass over the legal moves to find the other pieces that could reach the same square.
+ */
+public final class San {
+
+    private static final int NO_HINT = 0;
+
+    private San() {
+    }
+
+    public static int parse(BoardState state, CharSequence text) {
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        return parse(state, moves, MoveGenerator.generateLegalMoves(state, moves, 0), text);
+    }
+
+    //returns Move.NONE when the text matches no legal move or more than one
+    public static int parse(BoardState state, int[] legalMoves, int legalMoveCount, CharSequence text) {
+        int end = text.length();
+        while (end > 0 && isSuffix(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end < 2) {
+            return Move.NONE;
+        }
+        if (isCastling(text, end)) {
+            int kingSquare = state.getKingSquare(state.getCurrentTurn());
+            int target = end == 3 ? kingSquare + 2 : kingSquare - 2;
+            for (int i = 0; i < legalMoveCount; i++) {
+                if (Move.kind(legalMoves[i]) == Move.KIND_CASTLING && Move.to(legalMoves[i]) == target) {
+                    return legalMoves[i];
+                }
+            }
+            return Move.NONE;
+        }
+
+        PieceType promotion = PieceType.NONE;
+        if (!isRank(text.charAt(end - 1))) {
+            promotion = pieceType(text.charAt(end - 1));
+            if (promotion == PieceType.NONE || promotion == PieceType.PAWN || promotion == PieceType.KING) {
+                return Move.NONE;
+            }
+            end -= end > 2 && text.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2 || !isFile(text.charAt(end - 2)) || !isRank(text.charAt(end - 1))) {
+            return Move.NONE;
+        }
+        int target = Bitboard.square(text.charAt(end - 1) - '0', text.charAt(end - 2) - 'a' + 1);
+
+        PieceType moving = pieceType(text.charAt(0));
+        int start = moving == PieceType.NONE ? 0 : 1;
+        moving = moving == PieceType.NONE ? PieceType.PAWN : moving;
+        int fromFile = NO_HINT;
+        int fromRank = NO_HINT;
+        boolean captureMark = false;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (isFile(c)) {
+                fromFile = c - 'a' + 1;
+            } else if (isRank(c)) {
+                fromRank = c - '0';
+            } else if (c == 'x' || c == ':') {
+                captureMark = true;
+            } else if (c != '-') {
+                return Move.NONE;
+            }
+        }
+        //a pawn without an origin file moves straight ahead
+        if (moving == PieceType.PAWN && fromFile == NO_HINT) {
+            fromFile = Bitboard.file(target);
+        }
+
+        int match = Move.NONE;
+        for (int i = 0; i < legalMoveCount; i++) {
+            int move = legalMoves[i];
+            int from = Move.from(move);
+            if (Move.to(move) != target || Move.kind(move) == Move.KIND_CASTLING
+                    || state.getPieceType(from) != moving || Move.promotionType(move) != promotion
+                    || (fromFile != NO_HINT && Bitboard.file(from) != fromFile)
+                    || (fromRank != NO_HINT && Bitboard.rank(from) != fromRank)
+                    || (Move.isCapture(move) ? !captureMark && moving == PieceType.PAWN : captureMark)) {
+                continue;
+            }
+            if (match != Move.NONE) {
+                return Move.NONE; //ambiguous
+            }
+            match = move;
+        }
+        return match;
+    }
+
+    public static String toSan(BoardState state, int move) {
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        return toSan(state, moves, MoveGenerator.generateLegalMoves(state, moves, 0), move);
+    }
+
+    //the move is played and taken back on the state to find the check or mate suffix
+    public static String toSan(BoardState state, int[] legalMoves, int legalMoveCount, int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        PieceType moving = state.getPieceType(from);
+        StringBuilder san = new StringBuilder(8);
+        if (Move.kind(move) == Move.KIND_CASTLING) {
+            san.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            if (moving == PieceType.PAWN) {
+                if (Move.isCapture(move)) {
+                    san.append(fileLetter(from));
+                }
+            } else {
+                san.append(pieceLetter(moving));
+                boolean ambiguous = false;
+                boolean sharesFile = false;
+                boolean sharesRank = false;
+                for (int i = 0; i < legalMoveCount; i++) {
+                    int other = Move.from(legalMoves[i]);
+                    if (Move.to(legalMoves[i]) == to && other != from && state.getPieceType(other) == moving) {
+                        ambiguous = true;
+                        sharesFile |= Bitboard.file(other) == Bitboard.file(from);
+                        sharesRank |= Bitboard.rank(other) == Bitboard.rank(from);
+                    }
+                }
+                if (ambiguous && (!sharesFile || sharesRank)) {
+                    san.append(fileLetter(from));
+                }
+                if (sharesFile) {
+                    san.append(Bitboard.rank(from));
+                }
+            }
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(fileLetter(to)).append(Bitboard.rank(to));
+            if (Move.isPromotion(move)) {
+                san.append('=').append(pieceLetter(Move.promotionType(move)));
+            }
+        }
+
+        state.makeMove(move);
+        if (MoveGenerator.isInCheck(state, state.getCurrentTurn())) {
+            int[] replies = new int[Move.MAX_LEGAL_MOVES];
+            san.append(MoveGenerator.generateLegalMoves(state, replies, 0) == 0 ? '#' : '+');
+        }
+        state.unmakeMove();
+        return san.toString();
+    }
+
+    private static char fileLetter(int square) {
+        return (char) ('a' + Bitboard.file(square) - 1);
+    }
+
+    private static char pieceLetter(PieceType type) {
+        return switch (type) {
+            case KNIGHT -> 'N';
+            case BISHOP -> 'B';
+            case ROOK -> 'R';
+            case QUEEN -> 'Q';
+            case KING -> 'K';
+            default -> 'P';
+        };
+    }
+
+    private static boolean isCastling(CharSequence text, int end) {
+        if (end != 3 && end != 5) {
+            return false;
+        }
+        char castle = text.charAt(0);
+        if (castle != 'O' && castle != '0') {
+            return false;
+        }
+        for (int i = 1; i < end; i++) {
+            if (text.charAt(i) != (i % 2 == 1 ? '-' : castle)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static PieceType pieceType(char letter) {
+        return switch (letter) {
+            case 'P' -> PieceType.PAWN;
+            case 'N' -> PieceType.KNIGHT;
+            case 'B' -> PieceType.BISHOP;
+            case 'R' -> PieceType.ROOK;
+            case 'Q' -> PieceType.QUEEN;
+            case 'K' -> PieceType.KING;
+            default -> PieceType.NONE;
+        };
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+}
@@ -28,6 +28,16 @@ public abstract class GenericPiece implements Piece {
         currentPos = to;
     }
 
+    @Override
+    public int getMoveState() {
+        return 0;
+    }
+
+    @Override
+    public void restoreMoveState(Position pos, int moveState) {
+        currentPos = pos;
+    }
+
     @Override
     public Position getCurrentPos() {
         return currentPos;
@@ -45,6 +55,6 @@ public abstract class GenericPiece implements Piece {
 
     @Override
     public PieceTypeColor getTypeColor() {
-        return new PieceTypeColor(type, color);
+        return PieceTypeColor.of(type, color);
     }
 }
@@ -1,6 +1,8 @@
 package Game.Pieces;
 
+import Game.GameRules.Bitboard;
 import Game.GameRules.ChessRules;
+import Game.GameRules.LeaperAttacks;
 import Game.Direction;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
@@ -26,19 +28,20 @@ public class King extends GenericPiece {
             }
             Direction d = Direction.findDirection(currentPos, to);
             if (!board.hasRookMoved(color, d)) {
-                Position p = new Position(currentPos.x(), currentPos.y() + d.y);
+                Position p = Position.of(currentPos.x(), currentPos.y() + d.y);
 
                 while (!p.equals(to)) {
                     if (board.getPieceType(p) != PieceType.NONE && !board.isPositionUnderAttack(p, color)) {
                         return false;
                     }
-                    p = new Position(p.x(), p.y() + d.y);
+                    p = Position.of(p.x(), p.y() + d.y);
                 }
                 return true;
             }
         }
 
-        if (Math.abs(currentPos.x() - to.x()) > 1 || Math.abs(currentPos.y() - to.y()) > 1) {
+        if (!Bitboard.isInBounds(to)
+                || !Bitboard.contains(LeaperAttacks.kingAttacks(Bitboard.square(currentPos)), Bitboard.square(to))) {
             return false;
         }
         return ignorePieceOnPosTo || board.getPieceColor(to) != color;
@@ -46,15 +49,9 @@ public class King extends GenericPiece {
 
     @Override
     public boolean hasValidMove(ChessRules board) {
-        for (Direction d : Direction.values()) {
-            if (d == Direction.N) {
-                continue;
-            }
-            Position pos = new Position(currentPos.x() + d.x, currentPos.y() + d.y);
-            if (!board.isInBounds(pos)) {
-                continue;
-            }
-            if (!board.isPositionUnderAttack(pos, color) && (board.getPieceColor(pos) != color)) {
+        long targets = LeaperAttacks.kingAttacks(Bitboard.square(currentPos)) & ~board.getColorOccupancy(color);
+        for (; targets != Bitboard.EMPTY; targets = Bitboard.withoutFirstSquare(targets)) {
+            if (!board.isPositionUnderAttack(Bitboard.position(Bitboard.firstSquare(targets)), color)) {
                 return true;
             }
         }
@@ -67,5 +64,20 @@ public class King extends GenericPiece {
         hasMoved = true;
     }
 
+    public boolean hasMoved() {
+        return hasMoved;
+    }
+
+    @Override
+    public int getMoveState() {
+        return hasMoved ? 1 : 0;
+    }
+
+    @Override
+    public void restoreMoveState(Position pos, int moveState) {
+        super.restoreMoveState(pos, moveState);
+        hasMoved = moveState != 0;
+    }
+
 
 }
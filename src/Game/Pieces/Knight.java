@@ -1,6 +1,8 @@
 package Game.Pieces;
 
+import Game.GameRules.Bitboard;
 import Game.GameRules.ChessRules;
+import Game.GameRules.LeaperAttacks;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
 import Game.Position;
@@ -13,12 +15,10 @@ public class Knight extends GenericPiece {
 
     @Override
     public boolean isValidMove(ChessRules board, Position to, boolean ignorePieceOnPosTo) {
-        if (currentPos.equals(to)) {
+        if (!Bitboard.isInBounds(to)) {
             return false;
         }
-
-        if ((Math.abs(currentPos.x() - to.x()) == 1 && Math.abs(currentPos.y() - to.y()) == 2) ||
-                (Math.abs(currentPos.x() - to.x()) == 2 && Math.abs(currentPos.y() - to.y()) == 1)) {
+        if (Bitboard.contains(LeaperAttacks.knightAttacks(Bitboard.square(currentPos)), Bitboard.square(to))) {
             return ignorePieceOnPosTo || board.getPieceColor(to) != color;
         }
         return false;
@@ -26,17 +26,7 @@ public class Knight extends GenericPiece {
 
     @Override
     public boolean hasValidMove(ChessRules board) {
-        int[][] moves = {{2, 1}, {2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {-2, 1}, {-2, -1}};
-        for (int[] move : moves) {
-            Position pos = new Position(currentPos.x() + move[0], currentPos.y() + move[1]);
-            if (!board.isInBounds(pos)) {
-                continue;
-            }
-            if (board.getPieceColor(pos) != color) {
-                return true;
-            }
-        }
-        return false;
+        return (LeaperAttacks.knightAttacks(Bitboard.square(currentPos)) & ~board.getColorOccupancy(color)) != Bitboard.EMPTY;
     }
 
 }
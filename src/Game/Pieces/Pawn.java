@@ -1,7 +1,8 @@
 package Game.Pieces;
 
+import Game.GameRules.Bitboard;
 import Game.GameRules.ChessRules;
-import Game.Direction;
+import Game.GameRules.LeaperAttacks;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
 import Game.Position;
@@ -19,25 +20,23 @@ public class Pawn extends GenericPiece {
 
     @Override
     public boolean isValidMove(ChessRules board, Position to, boolean ignorePieceOnPosTo) {
-        if (currentPos.equals(to)) {
+        if (!Bitboard.isInBounds(to)) {
             return false;
         }
 
-        if (currentPos.x() - to.x() == (color == PieceColor.WHITE ? -1 : 1)) {
-            if (currentPos.y() == to.y()) {
-                return board.getPieceColor(to) == PieceColor.NONE;
-            }
-            if (Math.abs(currentPos.y() - to.y()) == 1) {
-                if (board.getPieceColor(to) == PieceColor.NONE) {
-                    return board.isEnPassant(to, color);
-                }
-                return ignorePieceOnPosTo || board.getPieceColor(to) == color.getOppositeColor();
+        if (Bitboard.contains(LeaperAttacks.pawnAttacks(Bitboard.square(currentPos), color), Bitboard.square(to))) {
+            if (board.getPieceColor(to) == PieceColor.NONE) {
+                return board.isEnPassant(to, color);
             }
+            return ignorePieceOnPosTo || board.getPieceColor(to) == color.getOppositeColor();
+        }
+        if (currentPos.x() - to.x() == (color == PieceColor.WHITE ? -1 : 1) && currentPos.y() == to.y()) {
+            return board.getPieceColor(to) == PieceColor.NONE;
         }
         if (!hasMoved) {
             if (currentPos.x() - to.x() == (color == PieceColor.WHITE ? -2 : 2)) {
                 if (currentPos.y() == to.y()) {
-                    Position p = new Position(currentPos.x() + (color == PieceColor.WHITE ? 1 : -1), currentPos.y());
+                    Position p = Position.of(currentPos.x() + (color == PieceColor.WHITE ? 1 : -1), currentPos.y());
                     return board.getPieceColor(p) == PieceColor.NONE && board.getPieceColor(to) == PieceColor.NONE;
                 }
             }
@@ -47,13 +46,12 @@ public class Pawn extends GenericPiece {
 
     @Override
     public boolean hasValidMove(ChessRules board) {
-        Direction d = color == PieceColor.WHITE ? Direction.U : Direction.D;
-        if (board.getPieceColor(new Position(currentPos.x() + d.x, currentPos.y())) == PieceColor.NONE) {
+        int from = Bitboard.square(currentPos);
+        int forward = from + (color == PieceColor.WHITE ? Bitboard.BOARD_SIZE : -Bitboard.BOARD_SIZE);
+        if (board.getPieceColor(Bitboard.position(forward)) == PieceColor.NONE) {
             return true;
-        } else {
-            return board.getPieceColor(new Position(currentPos.x() + d.x, currentPos.y() - 1)) == color.getOppositeColor()
-                    || board.getPieceColor(new Position(currentPos.x() + d.x, currentPos.y() + 1)) == color.getOppositeColor();
         }
+        return (LeaperAttacks.pawnAttacks(from, color) & board.getColorOccupancy(color.getOppositeColor())) != Bitboard.EMPTY;
     }
 
     @Override
@@ -67,4 +65,16 @@ public class Pawn extends GenericPiece {
         return enPassant;
     }
 
+    @Override
+    public int getMoveState() {
+        return (hasMoved ? 1 : 0) | (enPassant ? 2 : 0);
+    }
+
+    @Override
+    public void restoreMoveState(Position pos, int moveState) {
+        super.restoreMoveState(pos, moveState);
+        hasMoved = (moveState & 1) != 0;
+        enPassant = (moveState & 2) != 0;
+    }
+
 }
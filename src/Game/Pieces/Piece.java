@@ -15,6 +15,10 @@ public interface Piece {
 
     void afterMove(Position to);
 
+    int getMoveState();
+
+    void restoreMoveState(Position pos, int moveState);
+
     Position getCurrentPos();
 
     PieceType getType();
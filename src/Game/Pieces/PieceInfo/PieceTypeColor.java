@@ -1,3 +1,20 @@
 package Game.Pieces.PieceInfo;
 
-public record PieceTypeColor(PieceType type, PieceColor color) { }
+public record PieceTypeColor(PieceType type, PieceColor color) {
+
+    private static final PieceTypeColor[][] SHARED = createShared();
+
+    private static PieceTypeColor[][] createShared() {
+        PieceTypeColor[][] shared = new PieceTypeColor[PieceType.values().length][PieceColor.values().length];
+        for (PieceType type : PieceType.values()) {
+            for (PieceColor color : PieceColor.values()) {
+                shared[type.ordinal()][color.ordinal()] = new PieceTypeColor(type, color);
+            }
+        }
+        return shared;
+    }
+
+    public static PieceTypeColor of(PieceType type, PieceColor color) {
+        return SHARED[type.ordinal()][color.ordinal()];
+    }
+}
@@ -24,4 +24,15 @@ public class Rook extends SlidingPiece {
     public boolean hasMoved() {
         return hasMoved;
     }
+
+    @Override
+    public int getMoveState() {
+        return hasMoved ? 1 : 0;
+    }
+
+    @Override
+    public void restoreMoveState(Position pos, int moveState) {
+        super.restoreMoveState(pos, moveState);
+        hasMoved = moveState != 0;
+    }
 }
@@ -1,7 +1,9 @@
 package Game.Pieces;
 
+import Game.GameRules.Bitboard;
 import Game.GameRules.ChessRules;
 import Game.Direction;
+import Game.GameRules.MagicBitboards;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
 import Game.Position;
@@ -12,17 +14,21 @@ import java.util.List;
 public abstract class SlidingPiece extends GenericPiece implements Piece {
 
     private final List<Direction> movementDirections;
+    private final boolean movesOrthogonally;
+    private final boolean movesDiagonally;
 
     public SlidingPiece(PieceColor color, PieceType type, Position pos, Direction[] directionArray) {
         super(color, type, pos);
         this.movementDirections = Arrays.asList(directionArray);
+        this.movesOrthogonally = movementDirections.contains(Direction.U);
+        this.movesDiagonally = movementDirections.contains(Direction.UR);
     }
 
     @Override
     public boolean hasValidMove(ChessRules board) {
         for (Direction d : movementDirections) {
             if (d == Direction.N) continue;
-            Position pos = new Position(currentPos.x() + d.x, currentPos.y() + d.y);
+            Position pos = Position.of(currentPos.x() + d.x, currentPos.y() + d.y);
             if (!board.isInBounds(pos)) continue;
             if (board.getPieceColor(pos) != color) return true;
         }
@@ -31,21 +37,16 @@ public abstract class SlidingPiece extends GenericPiece implements Piece {
 
     @Override
     public boolean isValidMove(ChessRules board, Position to, boolean ignorePieceOnPosTo) {
-        if (!Direction.isSlidingMove(currentPos, to)) {
+        if (!Bitboard.isInBounds(to)) {
             return false;
         }
-        Direction d = Direction.findDirection(currentPos, to);
-        if (!movementDirections.contains(d)) {
+        int from = Bitboard.square(currentPos);
+        long occupancy = board.getOccupancy();
+        long attacks = (movesOrthogonally ? MagicBitboards.rookAttacks(from, occupancy) : Bitboard.EMPTY)
+                | (movesDiagonally ? MagicBitboards.bishopAttacks(from, occupancy) : Bitboard.EMPTY);
+        if (!Bitboard.contains(attacks, Bitboard.square(to))) {
             return false;
         }
-        Position p = new Position(currentPos.x() + d.x, currentPos.y() + d.y);
-
-        while (!p.equals(to)) {
-            if (board.getPieceType(p) != PieceType.NONE) {
-                return false;
-            }
-            p = new Position(p.x() + d.x, p.y() + d.y);
-        }
         return ignorePieceOnPosTo || board.getPieceColor(to) != color;
     }
-}
\ No newline at end of file
+}
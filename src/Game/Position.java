@@ -2,6 +2,25 @@ package Game;
 
 public record Position(int x, int y) {
 
+    private static final int BOARD_SIZE = 8;
+    private static final Position[] BOARD_POSITIONS = createBoardPositions();
+
+    private static Position[] createBoardPositions() {
+        Position[] positions = new Position[BOARD_SIZE * BOARD_SIZE];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new Position(i / BOARD_SIZE + 1, i % BOARD_SIZE + 1);
+        }
+        return positions;
+    }
+
+    //returns the shared instance for squares on the board, only off-board coordinates allocate
+    public static Position of(int x, int y) {
+        if (x < 1 || x > BOARD_SIZE || y < 1 || y > BOARD_SIZE) {
+            return new Position(x, y);
+        }
+        return BOARD_POSITIONS[(x - 1) * BOARD_SIZE + (y - 1)];
+    }
+
     public boolean equals(int x, int y) {
         return this.x == x && this.y == y;
     }
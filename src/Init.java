@@ -2,10 +2,15 @@ import TextUI.TextChessEngine;
 
 public class Init {
 
+    //usage: Init [FEN] starts from the given position instead of the initial one
     public static void main(String[] args) {
 
         TextChessEngine t = new TextChessEngine();
-        t.startGame();
+        if (args.length > 0) {
+            t.startGame(String.join(" ", args));
+        } else {
+            t.startGame();
+        }
     }
 }
 
@@ -0,0 +1,24 @@
+package PGN;
+
+import Game.GameRules.BoardState;
+
+import java.util.Map;
+
+/*
+ * One game read from a PGN file. The moves are the packed moves that were replayed, so for a game with an
+ * illegal move they stop just before it. Plies count from one, ply zero stands for a FEN tag that could
+ * not be set up.
+ */
+public record PgnGame(Map<String, String> tags, int[] moves, String result, BoardState finalPosition,
+                      int illegalPly, String illegalMove) {
+
+    public static final int NO_ILLEGAL_PLY = -1;
+
+    public boolean isLegal() {
+        return illegalPly == NO_ILLEGAL_PLY;
+    }
+
+    public String tag(String name) {
+        return tags.get(name);
+    }
+}
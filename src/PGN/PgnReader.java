@@ -0,0 +1,266 @@
+package PGN;
+
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Notation.San;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Reads PGN games one at a time from a channel through a fixed buffer, so files of any size stream through in
+ * constant memory. Every game is replayed while its movetext is read: each SAN move is resolved against the
+ * legal moves of the current position and played on a BoardState. Comments, variations, NAGs and lines escaped
+ * with a % in the first column are skipped. A game with an illegal move is read to its end but not replayed past that move, a bad game never
+ * ends the stream.
+ */
+public class PgnReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int END_OF_INPUT = -1;
+    private static final int NO_BYTE = -2;
+    private static final BoardState STARTING_POSITION = BoardFactory.fromFen(BoardFactory.STARTING_FEN);
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final StringBuilder token = new StringBuilder();
+    private final int[] legalMoves = new int[Move.MAX_LEGAL_MOVES];
+    private byte[] tagValue = new byte[64];
+    private int[] moves = new int[256];
+    private int pushback = NO_BYTE;
+    private int previousByte = '\n';
+    private boolean lineStart; //the last byte read is the first of its line
+    private long bytesRead;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public PgnReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(bufferSize);
+        buffer.flip();
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    //returns null once the input holds no further game
+    public PgnGame nextGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        int c = skipWhitespace();
+        while (c == '[') {
+            readTag(tags);
+            c = skipWhitespace();
+        }
+        if (c == END_OF_INPUT && tags.isEmpty()) {
+            return null;
+        }
+
+        BoardState board = null;
+        int illegalPly = PgnGame.NO_ILLEGAL_PLY;
+        String illegalMove = null;
+        String fen = tags.get("FEN");
+        try {
+            board = new BoardState(fen == null ? STARTING_POSITION : BoardFactory.fromFen(fen));
+        } catch (IllegalArgumentException e) {
+            illegalPly = 0;
+            illegalMove = fen;
+        }
+
+        int plies = 0;
+        String result = "*";
+        for (; c != END_OF_INPUT; c = skipWhitespace()) {
+            if (c == '[') { //the next game's tags, this one had no result
+                pushback = c;
+                break;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';' || (c == '%' && lineStart)) {
+                skipPast('\n');
+            } else if (c == '(') {
+                skipVariation();
+            } else if (c == ')') {
+                continue;
+            } else if (c >= '0' && c <= '9' && readMoveNumber(c)) {
+                continue;
+            } else {
+                if (c < '0' || c > '9') {
+                    token.setLength(0);
+                    token.append((char) c);
+                }
+                readToken();
+                if (isResult()) {
+                    result = token.toString();
+                    break;
+                }
+                if (token.charAt(0) == '$' || isEnPassantMark() || illegalPly != PgnGame.NO_ILLEGAL_PLY) {
+                    continue;
+                }
+                int move = resolve(board, token);
+                if (move == Move.NONE) {
+                    illegalPly = plies + 1;
+                    illegalMove = token.toString();
+                    continue;
+                }
+                board.makeMove(move);
+                if (plies == moves.length) {
+                    moves = Arrays.copyOf(moves, plies * 2);
+                }
+                moves[plies++] = move;
+            }
+        }
+        return new PgnGame(tags, Arrays.copyOf(moves, plies), result, board, illegalPly, illegalMove);
+    }
+
+    //Move.NONE for a move that is not legal here, or for any position the rules cannot replay
+    private int resolve(BoardState board, CharSequence san) {
+        try {
+            return San.parse(board, legalMoves, MoveGenerator.generateLegalMoves(board, legalMoves, 0), san);
+        } catch (RuntimeException e) {
+            return Move.NONE;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != NO_BYTE) {
+            int c = pushback;
+            pushback = NO_BYTE;
+            return c;
+        }
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int count = 0;
+            while (count == 0) {
+                count = channel.read(buffer);
+            }
+            buffer.flip();
+            if (count < 0) {
+                return END_OF_INPUT;
+            }
+            bytesRead += count;
+        }
+        int c = buffer.get() & 0xFF;
+        lineStart = previousByte == '\n';
+        previousByte = c;
+        return c;
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while (c != END_OF_INPUT && c <= ' ') {
+            c = read();
+        }
+        return c;
+    }
+
+    private void skipPast(char last) throws IOException {
+        for (int c = read(); c != last && c != END_OF_INPUT; c = read()) {
+        }
+    }
+
+    //variations may nest and hold comments with parentheses of their own
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            } else if (c == END_OF_INPUT) {
+                return;
+            }
+        }
+    }
+
+    //[Name "value"], the value may escape quotes and backslashes
+    private void readTag(Map<String, String> tags) throws IOException {
+        token.setLength(0);
+        int c = skipWhitespace();
+        while (c > ' ' && c != '"' && c != ']') {
+            token.append((char) c);
+            c = read();
+        }
+        while (c != '"' && c != ']' && c != END_OF_INPUT) {
+            c = read();
+        }
+        int length = 0;
+        if (c == '"') {
+            for (c = read(); c != '"' && c != END_OF_INPUT; c = read()) {
+                if (c == '\\') {
+                    c = read();
+                }
+                if (length == tagValue.length) {
+                    tagValue = Arrays.copyOf(tagValue, length * 2);
+                }
+                tagValue[length++] = (byte) c;
+            }
+            skipPast(']');
+        }
+        tags.put(token.toString(), new String(tagValue, 0, length, StandardCharsets.UTF_8));
+    }
+
+    //returns true for a move number such as "12." or "12...". Otherwise the digits stay in the token for
+    //readToken to finish, they start a result or a castling written with zeros.
+    private boolean readMoveNumber(int first) throws IOException {
+        token.setLength(0);
+        int c = first;
+        while (c >= '0' && c <= '9') {
+            token.append((char) c);
+            c = read();
+        }
+        if (c != '.') {
+            pushback = c;
+            return false;
+        }
+        while (c == '.') {
+            c = read();
+        }
+        pushback = c;
+        return true;
+    }
+
+    //continues the token with everything up to the next whitespace or delimiter
+    private void readToken() throws IOException {
+        int c = read();
+        while (c > ' ' && c != '{' && c != '}' && c != '(' && c != ')' && c != ';' && c != '[' && c != ']'
+                && c != '$') {
+            token.append((char) c);
+            c = read();
+        }
+        pushback = c;
+    }
+
+    private boolean isResult() {
+        return contentEquals("1-0") || contentEquals("0-1") || contentEquals("1/2-1/2") || contentEquals("*");
+    }
+
+    private boolean isEnPassantMark() {
+        return contentEquals("e.p.");
+    }
+
+    private boolean contentEquals(String text) {
+        if (token.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (token.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
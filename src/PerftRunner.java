@@ -0,0 +1,33 @@
+import Game.GameRules.ParallelPerft;
+import Game.GameRules.Perft;
+import Game.GameRules.PerftPosition;
+
+public class PerftRunner {
+
+    //usage: PerftRunner [position name|all] [depth] [divide|parallel]
+    public static void main(String[] args) {
+        String positionName = args.length > 0 ? args[0].toUpperCase() : "ALL";
+        int requestedDepth = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        String mode = args.length > 2 ? args[2].toLowerCase() : "";
+
+        boolean allPassed = true;
+        for (PerftPosition position : PerftPosition.values()) {
+            if (!positionName.equals("ALL") && !positionName.equals(position.name())) {
+                continue;
+            }
+            int depth = requestedDepth > 0 ? requestedDepth : Math.min(position.getMaxDepth(), 5);
+            System.out.println(position.name());
+            Perft.PerftResult result = switch (mode) {
+                case "divide" -> new Perft(position.createBoard(), depth).divide(depth, System.out);
+                case "parallel" -> new ParallelPerft(position.createBoard()).run(depth);
+                default -> new Perft(position.createBoard(), depth).run(depth);
+            };
+            boolean passed = depth > position.getMaxDepth() || result.nodes() == position.getExpectedNodes(depth);
+            allPassed &= passed;
+            System.out.println(result + (passed ? "" : " MISMATCH, expected " + position.getExpectedNodes(depth)));
+        }
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+import PGN.PgnGame;
+import PGN.PgnReader;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+
+public class PgnRunner {
+
+    //usage: PgnRunner <file.pgn|->... replays every game and lists the first illegal ply of each bad one
+    public static void main(String[] args) throws IOException {
+        long games = 0;
+        long plies = 0;
+        long illegalGames = 0;
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (String file : args.length == 0 ? new String[]{"-"} : args) {
+            try (ReadableByteChannel channel = file.equals("-") ? Channels.newChannel(System.in)
+                    : FileChannel.open(Path.of(file))) {
+                PgnReader reader = new PgnReader(channel);
+                for (PgnGame game = reader.nextGame(); game != null; game = reader.nextGame()) {
+                    games++;
+                    plies += game.moves().length;
+                    if (!game.isLegal()) {
+                        illegalGames++;
+                        System.out.println(file + " game " + games + " (" + game.tag("White") + " - "
+                                + game.tag("Black") + "): illegal " + game.illegalMove() + " at ply "
+                                + game.illegalPly());
+                    }
+                }
+                bytes += reader.getBytesRead();
+            }
+        }
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        System.out.printf("games %d, plies %d, illegal %d, %.1f MB in %.2f s, %.0f games/s%n",
+                games, plies, illegalGames, bytes / 1e6, seconds, games / seconds);
+        if (illegalGames > 0) {
+            System.exit(1);
+        }
+    }
+}
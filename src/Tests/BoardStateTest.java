@@ -0,0 +1,326 @@
+package Tests;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.GameRules.PerftPosition;
+import Game.Pieces.*;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class BoardStateTest {
+
+    @Test
+    void defaultBoardBitboards() {
+        BoardState state = new BoardState(BoardFactory.createDefaultBoard());
+
+        assert (state.getBitboard(PieceType.PAWN, PieceColor.WHITE) == 0x000000000000FF00L);
+        assert (state.getBitboard(PieceType.PAWN, PieceColor.BLACK) == 0x00FF000000000000L);
+        assert (state.getBitboard(PieceType.ROOK, PieceColor.WHITE) == 0x0000000000000081L);
+        assert (state.getBitboard(PieceType.KING, PieceColor.BLACK) == Bitboard.bit(Bitboard.square(8, 5)));
+        assert (state.getColorOccupancy(PieceColor.WHITE) == 0x000000000000FFFFL);
+        assert (state.getColorOccupancy(PieceColor.BLACK) == 0xFFFF000000000000L);
+        assert (state.getOccupancy() == 0xFFFF00000000FFFFL);
+    }
+
+    @Test
+    void moveAndRevertKeepBitboardsInSync() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 1)));
+        board.add(new Knight(PieceColor.BLACK, new Position(5, 1)));
+        BoardState state = new BoardState(board);
+
+        state.movePiece(new Position(1, 1), new Position(5, 1));
+        assert (state.getPieceType(new Position(5, 1)) == PieceType.ROOK);
+        assert (state.getPieceColor(new Position(5, 1)) == PieceColor.WHITE);
+        assert (state.getBitboard(PieceType.KNIGHT, PieceColor.BLACK) == Bitboard.EMPTY);
+        assert (!Bitboard.contains(state.getOccupancy(), Bitboard.square(1, 1)));
+
+        state.revertLastMove();
+        assert (state.getPieceType(new Position(5, 1)) == PieceType.KNIGHT);
+        assert (state.getPieceColor(new Position(5, 1)) == PieceColor.BLACK);
+        assert (state.getPieceType(new Position(1, 1)) == PieceType.ROOK);
+        assert (Bitboard.count(state.getOccupancy()) == 4);
+    }
+
+    @Test
+    void unmakeRestoresEveryPly() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+        Random random = new Random(7);
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        int plies = 400;
+        long[] keys = new long[plies];
+        long[] occupancies = new long[plies];
+        int[] castlingRights = new int[plies];
+        int[] enPassantSquares = new int[plies];
+        int played = 0;
+        while (played < plies) {
+            int count = MoveGenerator.generateLegalMoves(state, moves, 0);
+            if (count == 0) {
+                break;
+            }
+            keys[played] = state.getZobristKey();
+            occupancies[played] = state.getOccupancy();
+            castlingRights[played] = state.getCastlingRights();
+            enPassantSquares[played] = state.getEnPassantSquare();
+            state.makeMove(moves[random.nextInt(count)]);
+            played++;
+        }
+        assert (state.getUndoDepth() == played);
+
+        while (played > 0) {
+            state.unmakeMove();
+            played--;
+            assert (state.getZobristKey() == keys[played]);
+            assert (state.getZobristKey() == state.computeZobristKey());
+            assert (state.getOccupancy() == occupancies[played]);
+            assert (state.getCastlingRights() == castlingRights[played]);
+            assert (state.getEnPassantSquare() == enPassantSquares[played]);
+        }
+        assert (state.getCurrentTurn() == PieceColor.WHITE);
+    }
+
+    private static boolean evaluationTermsMatchRebuild(BoardState state) {
+        BoardState rebuilt = new BoardState(new ArrayList<>(state.getPieceCollection()));
+        return state.getMiddlegameScore() == rebuilt.getMiddlegameScore()
+                && state.getEndgameScore() == rebuilt.getEndgameScore()
+                && state.getGamePhase() == rebuilt.getGamePhase()
+                && state.getPawnKey() == rebuilt.getPawnKey();
+    }
+
+    @Test
+    void incrementalEvaluationTermsMatchRebuild() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+        Random random = new Random(11);
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        int played = 0;
+        for (; played < 200; played++) {
+            int count = MoveGenerator.generateLegalMoves(state, moves, 0);
+            if (count == 0) {
+                break;
+            }
+            state.makeMove(moves[random.nextInt(count)]);
+            assert (evaluationTermsMatchRebuild(state));
+        }
+        for (; played > 0; played--) {
+            state.unmakeMove();
+            assert (evaluationTermsMatchRebuild(state));
+        }
+
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 8)));
+        Pawn pawn = new Pawn(PieceColor.WHITE, new Position(7, 1));
+        board.add(pawn);
+        BoardState legacy = new BoardState(board);
+        int middlegame = legacy.getMiddlegameScore();
+        int phase = legacy.getGamePhase();
+        legacy.movePiece(new Position(7, 1), new Position(8, 1));
+        legacy.finishMove(new Position(8, 1));
+        legacy.setPromotionTarget(pawn);
+        legacy.promote(PieceType.QUEEN);
+        assert (evaluationTermsMatchRebuild(legacy));
+        assert (legacy.getGamePhase() == phase + 4);
+        legacy.revertLastMove();
+        assert (legacy.getMiddlegameScore() == middlegame);
+        assert (legacy.getGamePhase() == phase);
+    }
+
+    @Test
+    void revertRestoresPieceFlags() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        Pawn whitePawn = new Pawn(PieceColor.WHITE, new Position(5, 5));
+        Pawn blackPawn = new Pawn(PieceColor.BLACK, new Position(7, 4));
+        board.add(whitePawn);
+        board.add(blackPawn);
+        BoardState state = new BoardState(board);
+
+        state.movePiece(new Position(7, 4), new Position(5, 4));
+        state.finishMove(new Position(5, 4));
+        assert (blackPawn.canEnPassant());
+        long key = state.getZobristKey();
+
+        state.movePiece(new Position(5, 5), new Position(6, 4));
+        state.enPassantCapture(new Position(5, 4));
+        state.finishMove(new Position(6, 4));
+        assert (state.getPieceType(new Position(5, 4)) == PieceType.NONE);
+
+        state.revertLastMove();
+        assert (state.getPiece(new Position(5, 4)) == blackPawn);
+        assert (state.getPiece(new Position(5, 5)) == whitePawn);
+        assert (whitePawn.getCurrentPos().equals(new Position(5, 5)));
+        assert (blackPawn.canEnPassant());
+        assert (state.getZobristKey() == key);
+
+        state.revertLastMove();
+        assert (blackPawn.getCurrentPos().equals(new Position(7, 4)));
+        assert (!blackPawn.canEnPassant());
+        assert (state.getEnPassantSquare() == BoardState.NO_SQUARE);
+    }
+
+    @Test
+    void kingSquareFollowsCastlingAndReverts() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+        assert (state.getKingSquare(PieceColor.WHITE) == Bitboard.square(1, 5));
+        assert (state.getKingSquare(PieceColor.BLACK) == Bitboard.square(8, 5));
+
+        state.makeMove(Move.of(Bitboard.square(1, 5), Bitboard.square(1, 7), Move.KIND_CASTLING));
+        assert (state.getKingSquare(PieceColor.WHITE) == Bitboard.square(1, 7));
+        state.makeMove(Move.of(Bitboard.square(8, 5), Bitboard.square(8, 3), Move.KIND_CASTLING));
+        assert (state.getKingSquare(PieceColor.BLACK) == Bitboard.square(8, 3));
+
+        state.unmakeMove();
+        state.unmakeMove();
+        assert (state.getKingSquare(PieceColor.WHITE) == Bitboard.square(1, 5));
+        assert (state.getKingSquare(PieceColor.BLACK) == Bitboard.square(8, 5));
+
+        state.movePiece(new Position(1, 5), new Position(1, 6));
+        state.finishMove(new Position(1, 6));
+        assert (state.getKingSquare(PieceColor.WHITE) == Bitboard.square(1, 6));
+        assert (state.getKing(PieceColor.WHITE).getCurrentPos().equals(new Position(1, 6)));
+        state.revertLastMove();
+        assert (state.getKingSquare(PieceColor.WHITE) == Bitboard.square(1, 5));
+        assert (state.getKing(PieceColor.WHITE).getCurrentPos().equals(new Position(1, 5)));
+    }
+
+    @Test
+    void incrementalAttackMapsMatchRebuild() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+        Random random = new Random(11);
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        for (int ply = 0; ply < 300; ply++) {
+            int count = MoveGenerator.generateLegalMoves(state, moves, 0);
+            if (count == 0 || (ply % 5 == 4 && state.getUndoDepth() > 0)) {
+                state.unmakeMove();
+            } else {
+                state.makeMove(moves[random.nextInt(count)]);
+            }
+            BoardState rebuilt = new BoardState(state);
+            for (PieceColor color : new PieceColor[]{PieceColor.WHITE, PieceColor.BLACK}) {
+                assert (state.getAttackedSquares(color) == rebuilt.getAttackedSquares(color));
+                for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+                    assert (state.getAttackerCount(square, color) == rebuilt.getAttackerCount(square, color));
+                }
+            }
+        }
+    }
+
+    @Test
+    void attackersListsEveryAttacker() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+
+        long attackers = state.getAttackers(Bitboard.square(6, 3), PieceColor.WHITE);
+        assert (attackers == (Bitboard.bit(Bitboard.square(5, 4)) | Bitboard.bit(Bitboard.square(5, 5))));
+        assert (state.getAttackers(Bitboard.square(1, 5), PieceColor.BLACK) == Bitboard.EMPTY);
+        assert (Bitboard.count(state.getAttackers(Bitboard.square(6, 6), PieceColor.WHITE))
+                == state.getAttackerCount(Bitboard.square(6, 6), PieceColor.WHITE));
+        assert (state.getAttackers(Bitboard.square(6, 6), PieceColor.WHITE) == Bitboard.bit(Bitboard.square(3, 6)));
+    }
+
+    @Test
+    void copiesSeeEarlierRepetitions() {
+        BoardState state = new BoardState(BoardFactory.createDefaultBoard());
+        int[] knightDance = {Move.of(Bitboard.square(1, 7), Bitboard.square(3, 6)),
+                Move.of(Bitboard.square(8, 7), Bitboard.square(6, 6)),
+                Move.of(Bitboard.square(3, 6), Bitboard.square(1, 7)),
+                Move.of(Bitboard.square(6, 6), Bitboard.square(8, 7))};
+        for (int move : knightDance) {
+            state.makeMove(move);
+        }
+        state.makeMove(knightDance[0]);
+        assert (state.isRepetition());
+        BoardState copy = new BoardState(state);
+        assert (copy.isRepetition());
+        assert (new BoardState(copy).isRepetition());
+
+        copy.makeMove(knightDance[1]);
+        assert (copy.isRepetition());
+        copy.makeMove(Move.of(Bitboard.square(2, 5), Bitboard.square(4, 5), Move.KIND_DOUBLE_PUSH));
+        assert (!new BoardState(copy).isRepetition());
+    }
+
+    @Test
+    void fenRoundTrip() {
+        for (PerftPosition position : PerftPosition.values()) {
+            assert (BoardFactory.toFen(position.createBoard()).equals(position.getFen()));
+        }
+        String fen = "rnbqkbnr/pp1ppppp/8/2pP4/8/8/PPP1PPPP/RNBQKBNR w Kq c6 0 3";
+        BoardState state = BoardFactory.fromFen(fen);
+        assert (BoardFactory.toFen(state).equals(fen));
+        assert (state.getEnPassantSquare() == Bitboard.square(6, 3));
+        assert (state.getCastlingRights() == (BoardState.WHITE_KINGSIDE | BoardState.BLACK_QUEENSIDE));
+        assert (state.getZobristKey() == state.computeZobristKey());
+
+        BoardState start = BoardFactory.fromFen(BoardFactory.STARTING_FEN);
+        BoardState reference = new BoardState(BoardFactory.createDefaultBoard());
+        assert (start.getZobristKey() == reference.getZobristKey());
+        assert (start.getMiddlegameScore() == reference.getMiddlegameScore());
+        assert (start.getPawnKey() == reference.getPawnKey());
+        assert (BoardFactory.toFen(reference).equals(BoardFactory.STARTING_FEN));
+
+        //rights without the rook at home are dropped, missing counters default to 0 1
+        assert (BoardFactory.toFen(BoardFactory.fromFen("4k3/8/8/8/8/8/8/4K2R b KQ -"))
+                .equals("4k3/8/8/8/8/8/8/4K2R b K - 0 1"));
+    }
+
+    @Test
+    void fenMatchesPlayedMoves() {
+        BoardState state = new BoardState(BoardFactory.createDefaultBoard());
+        state.makeMove(Move.of(Bitboard.square(2, 5), Bitboard.square(4, 5), Move.KIND_DOUBLE_PUSH));
+        assert (BoardFactory.toFen(state).equals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1"));
+        state.makeMove(Move.of(Bitboard.square(8, 7), Bitboard.square(6, 6)));
+        state.makeMove(Move.of(Bitboard.square(1, 7), Bitboard.square(3, 6)));
+        String fen = "rnbqkb1r/pppppppp/5n2/8/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 2 2";
+        assert (BoardFactory.toFen(state).equals(fen));
+        assert (BoardFactory.fromFen(fen).getZobristKey() == state.getZobristKey());
+
+        state.unmakeMove();
+        state.unmakeMove();
+        assert (state.getHalfmoveClock() == 0);
+        assert (state.getFullmoveNumber() == 1);
+        assert (state.getCurrentTurn() == PieceColor.BLACK);
+
+        //a legacy castling is one move for the halfmove clock
+        BoardState legacy = PerftPosition.KIWIPETE.createBoard();
+        legacy.movePiece(new Position(1, 5), new Position(1, 7));
+        legacy.movePiece(new Position(1, 8), new Position(1, 6));
+        legacy.changeTurn();
+        assert (legacy.getHalfmoveClock() == 1);
+    }
+
+    @Test
+    void fenRejectsMalformedInput() {
+        for (String fen : new String[]{"", "8/8/8/8/8/8/8 w - - 0 1", "rnbqkbnr/pppppppx/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "8/8/8/8/8/8/8/8 x - - 0 1", "4k3/8/8/8/8/8/8/4K3 w - e4 0 1", "4k3/8/8/8/8/8/8/4K3 w - - a 1",
+                "8/8/8/8/8/8/8/8 w - - 0 1", "4k3/8/8/8/8/8/8/8 w - - 0 1", "4k3/8/8/8/8/8/8/K3K3 w - - 0 1",
+                "P3k3/8/8/8/8/8/8/4K3 w - - 0 1", "4k3/8/8/8/8/8/8/p3K3 b - - 0 1"}) {
+            try {
+                BoardFactory.fromFen(fen);
+                assert (false);
+            } catch (IllegalArgumentException e) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    void outOfBoundsQueries() {
+        BoardState state = new BoardState(BoardFactory.createDefaultBoard());
+
+        assert (state.getPiece(new Position(0, 1)) == null);
+        assert (state.getPieceColor(new Position(9, 1)) == PieceColor.NONE);
+        assert (state.getPieceType(new Position(1, 0)) == PieceType.NONE);
+    }
+}
@@ -1,8 +1,11 @@
 package Tests;
 
+import Game.GameRules.BoardFactory;
 import Game.GameRules.ChessRules;
 import Game.GameRules.ModernChessRules;
+import Game.GameRules.Move;
 import Game.MoveResult;
+import Game.Notation.San;
 import Game.Pieces.*;
 import Game.Pieces.PieceInfo.PieceColor;
 import Game.Pieces.PieceInfo.PieceType;
@@ -353,6 +356,35 @@ public class ChessRulesTest {
         assert (m == MoveResult.CHECK);
     }
 
+    @Test
+    void checkBlockedByPawnPush() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 8)));
+        board.add(new Bishop(PieceColor.WHITE, new Position(1, 7)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(2, 8)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(2, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Bishop(PieceColor.BLACK, new Position(8, 3)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        MoveResult m;
+        m = testBoard.move(new Position(2, 5), new Position(3, 5));
+        assert (m == MoveResult.VALID);
+        m = testBoard.move(new Position(8, 3), new Position(7, 2));
+        assert (m == MoveResult.CHECK);
+    }
+
+    @Test
+    void checkmateWhenNoPawnCanBlock() {
+        ChessRules testBoard = new ModernChessRules(BoardFactory.fromFen("2b1k3/8/8/8/8/8/P6P/6BK w - - 0 1"));
+
+        MoveResult m;
+        m = testBoard.move(new Position(2, 1), new Position(3, 1));
+        assert (m == MoveResult.VALID);
+        m = testBoard.move(new Position(8, 3), new Position(7, 2));
+        assert (m == MoveResult.CHECKMATE);
+    }
+
     @Test
     void stalemate() {
         List<Piece> board = new ArrayList<>();
@@ -368,4 +400,51 @@ public class ChessRulesTest {
         m = testBoard.move(new Position(1, 4), new Position(6, 4));
         assert (m == MoveResult.STALEMATE);
     }
+
+    @Test
+    void stalemateByPawnCoveringEmptySquare() {
+        ChessRules testBoard = new ModernChessRules(BoardFactory.fromFen("7k/5K2/8/6P1/8/8/8/8 w - - 0 1"));
+
+        MoveResult m;
+        m = testBoard.move(new Position(5, 7), new Position(6, 7));
+        assert (m == MoveResult.STALEMATE);
+    }
+
+    @Test
+    void fenPositionsKeepTheirMoveState() {
+        //only the kingside right is left to white
+        ChessRules castling = new ModernChessRules(BoardFactory.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1"));
+        assert (castling.move(new Position(1, 5), new Position(1, 3)) == MoveResult.INVALID);
+        assert (castling.move(new Position(1, 5), new Position(1, 7)) == MoveResult.VALID);
+        assert (castling.getPieceType(new Position(1, 6)) == PieceType.ROOK);
+        assert (castling.move(new Position(8, 5), new Position(8, 7)) == MoveResult.INVALID);
+        assert (castling.move(new Position(8, 5), new Position(8, 3)) == MoveResult.VALID);
+
+        //the d-pawn just advanced two squares, the c-pawn did so earlier
+        ChessRules enPassant = new ModernChessRules(BoardFactory.fromFen("4k3/8/8/2pPp3/8/4P3/8/4K3 w - e6 0 1"));
+        assert (enPassant.move(new Position(5, 4), new Position(6, 3)) == MoveResult.INVALID);
+        assert (enPassant.move(new Position(3, 5), new Position(5, 5)) == MoveResult.INVALID);
+        assert (enPassant.move(new Position(5, 4), new Position(6, 5)) == MoveResult.VALID);
+        assert (enPassant.getPieceType(new Position(5, 5)) == PieceType.NONE);
+
+        //the rules start from the position's own check
+        ChessRules inCheck = new ModernChessRules(BoardFactory.fromFen("4k3/8/8/8/8/8/8/r3K3 w - - 0 1"));
+        assert (inCheck.move(new Position(1, 5), new Position(1, 4)) == MoveResult.INVALID_CHECKED);
+        assert (inCheck.move(new Position(1, 5), new Position(2, 5)) == MoveResult.VALID);
+    }
+
+    @Test
+    void promotionInOneMove() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(7, 1)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        int move = San.parse(testBoard.copyBoardState(), "a8=Q+");
+        assert (move != Move.NONE);
+        MoveResult m = testBoard.move(move);
+        assert (m == MoveResult.CHECK);
+        assert (testBoard.getPieceType(new Position(8, 1)) == PieceType.QUEEN);
+    }
 }
@@ -0,0 +1,64 @@
+package Tests;
+
+import Game.Engine.Evaluation;
+import Game.Engine.PawnTable;
+import Game.Engine.Search;
+import Game.Engine.SearchLimits;
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.PerftPosition;
+import Game.Pieces.*;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EvaluationTest {
+
+    @Test
+    void startingPositionIsBalanced() {
+        BoardState state = new BoardState(BoardFactory.createDefaultBoard());
+        assert (Evaluation.evaluate(state) == 0);
+    }
+
+    @Test
+    void pawnStructureTerms() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 7)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 7)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(2, 1)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(2, 3)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(3, 3)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(5, 5)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 1)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 7)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 8)));
+        BoardState state = new BoardState(board);
+        PawnTable table = new PawnTable(16);
+
+        int entry = table.probe(state);
+        assert (table.passedPawns(entry, PieceColor.WHITE) == (Bitboard.bit(Bitboard.square(2, 3))
+                | Bitboard.bit(Bitboard.square(3, 3)) | Bitboard.bit(Bitboard.square(5, 5))));
+        assert (table.passedPawns(entry, PieceColor.BLACK) == (Bitboard.bit(Bitboard.square(7, 7))
+                | Bitboard.bit(Bitboard.square(7, 8))));
+        //white: doubled c pawns, four isolated pawns, passers on c2, c3 and e5; black: isolated a7, passers g7, h7
+        assert (table.middlegame(entry) == (-10 - 4 * 15 + 5 + 10 + 25) - (-15 + 5 + 5));
+        assert (table.shield(entry, PieceColor.WHITE, 7) == 0);
+        assert (table.shield(entry, PieceColor.BLACK, 7) == 20);
+        assert (table.shield(entry, PieceColor.BLACK, 1) == 10);
+
+        assert (table.probe(state) == entry);
+        assert (table.hitRate() == 0.5);
+        assert (Evaluation.evaluate(state, table) == Evaluation.evaluate(state));
+    }
+
+    @Test
+    void pawnHashHitsDuringSearch() {
+        Search search = new Search(PerftPosition.KIWIPETE.createBoard());
+        search.search(SearchLimits.depth(5));
+        assert (search.getPawnHashHitRate() > 0.9);
+    }
+}
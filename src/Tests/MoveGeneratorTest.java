@@ -0,0 +1,230 @@
+package Tests;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardFactory;
+import Game.GameRules.ChessRules;
+import Game.GameRules.LeaperAttacks;
+import Game.GameRules.BoardState;
+import Game.GameRules.MagicBitboards;
+import Game.GameRules.MoveGenerator;
+import Game.GameRules.PerftPosition;
+import Game.GameRules.ModernChessRules;
+import Game.GameRules.Move;
+import Game.Pieces.*;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+import Game.Direction;
+import Game.MoveResult;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class MoveGeneratorTest {
+
+    private final int[] moves = new int[Move.MAX_LEGAL_MOVES];
+
+    private boolean containsMove(int count, Position from, Position to) {
+        for (int i = 0; i < count; i++) {
+            if (Move.from(moves[i]) == Bitboard.square(from) && Move.to(moves[i]) == Bitboard.square(to)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long rayAttacks(int square, long occupancy, Direction... directions) {
+        long attacks = 0L;
+        for (Direction d : directions) {
+            int x = Bitboard.rank(square) + d.x;
+            int y = Bitboard.file(square) + d.y;
+            while (Bitboard.isInBounds(x, y)) {
+                attacks |= Bitboard.bit(Bitboard.square(x, y));
+                if (Bitboard.contains(occupancy, Bitboard.square(x, y))) {
+                    break;
+                }
+                x += d.x;
+                y += d.y;
+            }
+        }
+        return attacks;
+    }
+
+    @Test
+    void magicAttacksMatchRayWalk() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            long occupancy = random.nextLong() & random.nextLong();
+            int square = random.nextInt(Bitboard.SQUARE_COUNT);
+            long rook = rayAttacks(square, occupancy, Direction.U, Direction.R, Direction.D, Direction.L);
+            long bishop = rayAttacks(square, occupancy, Direction.UR, Direction.DR, Direction.DL, Direction.UL);
+            assert (MagicBitboards.rookAttacks(square, occupancy) == rook);
+            assert (MagicBitboards.bishopAttacks(square, occupancy) == bishop);
+            assert (MagicBitboards.queenAttacks(square, occupancy) == (rook | bishop));
+        }
+    }
+
+    @Test
+    void leaperTables() {
+        assert (Bitboard.count(LeaperAttacks.knightAttacks(Bitboard.square(1, 1))) == 2);
+        assert (Bitboard.count(LeaperAttacks.knightAttacks(Bitboard.square(4, 5))) == 8);
+        assert (Bitboard.count(LeaperAttacks.kingAttacks(Bitboard.square(8, 8))) == 3);
+        assert (Bitboard.count(LeaperAttacks.kingAttacks(Bitboard.square(4, 5))) == 8);
+        assert (LeaperAttacks.pawnAttacks(Bitboard.square(2, 1), PieceColor.WHITE) == Bitboard.bit(Bitboard.square(3, 2)));
+        assert (LeaperAttacks.pawnAttacks(Bitboard.square(7, 5), PieceColor.BLACK)
+                == (Bitboard.bit(Bitboard.square(6, 4)) | Bitboard.bit(Bitboard.square(6, 6))));
+    }
+
+    @Test
+    void defaultBoard() {
+        ChessRules testBoard = new ModernChessRules(BoardFactory.createDefaultBoard());
+
+        assert (testBoard.generateLegalMoves(moves) == 20);
+        testBoard.move(new Position(2, 5), new Position(4, 5));
+        assert (testBoard.generateLegalMoves(moves) == 20);
+    }
+
+    @Test
+    void onlyEvasionsWhenChecked() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Rook(PieceColor.WHITE, new Position(2, 1)));
+        board.add(new Rook(PieceColor.BLACK, new Position(8, 4)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        testBoard.move(new Position(2, 1), new Position(2, 2));
+        testBoard.move(new Position(8, 4), new Position(1, 4));
+
+        int count = testBoard.generateLegalMoves(moves);
+        assert (count == 3);
+        assert (containsMove(count, new Position(1, 5), new Position(1, 4)));
+        assert (containsMove(count, new Position(1, 5), new Position(2, 6)));
+        assert (!containsMove(count, new Position(2, 2), new Position(2, 4)));
+        assert (containsMove(count, new Position(1, 5), new Position(2, 5)));
+    }
+
+    @Test
+    void pinnedPieceStaysOnLine() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 1)));
+        board.add(new Rook(PieceColor.WHITE, new Position(3, 5)));
+        board.add(new Queen(PieceColor.BLACK, new Position(7, 5)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        int count = testBoard.generateLegalMoves(moves);
+        assert (containsMove(count, new Position(3, 5), new Position(7, 5)));
+        assert (containsMove(count, new Position(3, 5), new Position(2, 5)));
+        assert (!containsMove(count, new Position(3, 5), new Position(3, 1)));
+    }
+
+    @Test
+    void castlingThroughAttackedSquare() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 1)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 8)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 1)));
+        board.add(new Rook(PieceColor.BLACK, new Position(8, 6)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        int count = testBoard.generateLegalMoves(moves);
+        assert (containsMove(count, new Position(1, 5), new Position(1, 3)));
+        assert (!containsMove(count, new Position(1, 5), new Position(1, 7)));
+    }
+
+    @Test
+    void enPassantOnlyOnNextMove() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(5, 5)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 4)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        testBoard.move(new Position(1, 5), new Position(1, 4));
+        testBoard.move(new Position(7, 4), new Position(5, 4));
+        int count = testBoard.generateLegalMoves(moves);
+        assert (containsMove(count, new Position(5, 5), new Position(6, 4)));
+
+        testBoard.move(new Position(1, 4), new Position(1, 5));
+        testBoard.move(new Position(8, 5), new Position(8, 6));
+        count = testBoard.generateLegalMoves(moves);
+        assert (!containsMove(count, new Position(5, 5), new Position(6, 4)));
+    }
+
+    @Test
+    void legalityMasksAgreeWithGenerator() {
+        BoardState state = PerftPosition.KIWIPETE.createBoard();
+        Random random = new Random(5);
+        for (int ply = 0; ply < 200; ply++) {
+            int count = MoveGenerator.generateLegalMoves(state, moves, 0);
+            if (count == 0) {
+                break;
+            }
+            long[] legalPairs = new long[Bitboard.SQUARE_COUNT];
+            for (int i = 0; i < count; i++) {
+                legalPairs[Move.from(moves[i])] |= Bitboard.bit(Move.to(moves[i]));
+            }
+            for (long own = state.getColorOccupancy(state.getCurrentTurn()); own != 0; own &= own - 1) {
+                int from = Bitboard.firstSquare(own);
+                for (long targets = legalPairs[from]; targets != 0; targets &= targets - 1) {
+                    int to = Bitboard.firstSquare(targets);
+                    if (Math.abs(Bitboard.file(from) - Bitboard.file(to)) == 2 && state.getKingSquare(state.getCurrentTurn()) == from) {
+                        continue; //castling
+                    }
+                    assert (to == state.getEnPassantSquare() || MoveGenerator.isLegalMove(state, from, to));
+                }
+            }
+            int king = state.getKingSquare(state.getCurrentTurn());
+            long kingTargets = LeaperAttacks.kingAttacks(king) & ~state.getColorOccupancy(state.getCurrentTurn());
+            for (; kingTargets != 0; kingTargets &= kingTargets - 1) {
+                int to = Bitboard.firstSquare(kingTargets);
+                assert (MoveGenerator.isLegalMove(state, king, to) == Bitboard.contains(legalPairs[king], to));
+            }
+            state.makeMove(moves[random.nextInt(count)]);
+        }
+    }
+
+    @Test
+    void pinnedPieceRejectedWithoutMoving() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 1)));
+        board.add(new Rook(PieceColor.WHITE, new Position(3, 5)));
+        board.add(new Queen(PieceColor.BLACK, new Position(7, 5)));
+        BoardState state = new BoardState(board);
+
+        assert (MoveGenerator.pinnedPieces(state, PieceColor.WHITE) == Bitboard.bit(Bitboard.square(3, 5)));
+        assert (!MoveGenerator.isLegalMove(state, Bitboard.square(3, 5), Bitboard.square(3, 1)));
+        assert (MoveGenerator.isLegalMove(state, Bitboard.square(3, 5), Bitboard.square(7, 5)));
+        assert (MoveGenerator.checkMask(state, PieceColor.WHITE) == ~0L);
+
+        ChessRules testBoard = new ModernChessRules(board);
+        long key = testBoard.getPositionKey();
+        assert (testBoard.move(new Position(3, 5), new Position(3, 1)) == MoveResult.INVALID_CHECKED);
+        assert (testBoard.getPositionKey() == key);
+    }
+
+    @Test
+    void promotionChoices() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Pawn(PieceColor.WHITE, new Position(7, 1)));
+        ChessRules testBoard = new ModernChessRules(board);
+
+        int count = testBoard.generateLegalMoves(moves);
+        int promotions = 0;
+        for (int i = 0; i < count; i++) {
+            if (Move.isPromotion(moves[i])) {
+                promotions++;
+                assert (Move.promotionType(moves[i]) != PieceType.PAWN && Move.promotionType(moves[i]) != PieceType.KING);
+            }
+        }
+        assert (promotions == 4);
+    }
+}
@@ -0,0 +1,86 @@
+package Tests;
+
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.PerftPosition;
+import Game.Notation.Lan;
+import Game.Notation.San;
+import org.junit.jupiter.api.Test;
+
+public class NotationTest {
+
+    @Test
+    void sanRoundTripsAGame() {
+        String[] game = ("e4 e5 Nf3 d6 d4 Bg4 dxe5 Bxf3 Qxf3 dxe5 Bc4 Nf6 Qb3 Qe7 Nc3 c6 Bg5 b5 Nxb5 cxb5 Bxb5+ "
+                + "Nbd7 O-O-O Rd8 Rxd7 Rxd7 Rd1 Qe6 Bxd7+ Nxd7 Qb8+ Nxb8 Rd8#").split(" ");
+        BoardState state = BoardFactory.fromFen(BoardFactory.STARTING_FEN);
+        for (String san : game) {
+            int move = San.parse(state, san);
+            assert (move != Move.NONE);
+            assert (San.toSan(state, move).equals(san));
+            assert (Lan.parse(state, Lan.toLan(move)) == move);
+            state.makeMove(move);
+        }
+        assert (BoardFactory.toFen(state).equals("1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 1 17"));
+    }
+
+    @Test
+    void sanRejectsWrongPawnFilesAndCaptureMarks() {
+        BoardState state = BoardFactory.fromFen("r1bqkb1r/2pp1ppp/p1n2n2/1B2p3/4P3/5N2/PPPP1PPP/RNBQR1K1 b kq - 1 5");
+        assert (San.parse(state, "b5") == Move.NONE);
+        assert (San.toSan(state, San.parse(state, "axb5")).equals("axb5"));
+        assert (San.parse(state, "Kxe7") == Move.NONE);
+        assert (San.parse(state, "Ke7") != Move.NONE);
+
+        BoardState start = BoardFactory.fromFen(BoardFactory.STARTING_FEN);
+        assert (San.parse(start, "bxb4") == Move.NONE);
+        assert (San.parse(start, "b4") != Move.NONE);
+        BoardState scandinavian = BoardFactory.fromFen("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+        assert (San.parse(scandinavian, "ed5") == Move.NONE);
+        assert (San.parse(scandinavian, "exd5") != Move.NONE);
+        assert (San.parse(scandinavian, "e5") != Move.NONE);
+    }
+
+    @Test
+    void sanDisambiguatesByFileRankOrBoth() {
+        BoardState state = BoardFactory.fromFen("6k1/8/8/8/8/Q7/8/Q1Q4K w - - 0 1");
+        int fromCorner = San.parse(state, "Qa1b2");
+        int fromThirdRank = San.parse(state, "Q3b2");
+        int fromFileC = San.parse(state, "Qcb2");
+        assert (fromCorner != Move.NONE && fromThirdRank != Move.NONE && fromFileC != Move.NONE);
+        assert (San.toSan(state, fromCorner).equals("Qa1b2"));
+        assert (San.toSan(state, fromThirdRank).equals("Q3b2"));
+        assert (San.toSan(state, fromFileC).equals("Qcb2"));
+        assert (San.parse(state, "Qb2") == Move.NONE);
+        assert (San.parse(state, "Qa3b2") == fromThirdRank);
+        assert (San.toSan(state, San.parse(state, "Q1a2")).equals("Q1a2+"));
+    }
+
+    @Test
+    void promotionsAndLongNotation() {
+        BoardState state = BoardFactory.fromFen("3r2k1/4P3/8/8/8/8/8/4K3 w - - 0 1");
+        int underPromotion = San.parse(state, "exd8=N");
+        assert (underPromotion == Lan.parse(state, "e7d8n"));
+        assert (underPromotion == San.parse(state, "exd8N"));
+        assert (San.toSan(state, underPromotion).equals("exd8=N"));
+        assert (San.toSan(state, Lan.parse(state, "e7e8q")).equals("e8=Q+"));
+        assert (Lan.toLan(underPromotion).equals("e7d8n"));
+        assert (San.parse(state, "e8") == Move.NONE);
+        assert (Lan.parse(state, "e7e8") == Move.NONE);
+
+        BoardState kiwipete = PerftPosition.KIWIPETE.createBoard();
+        int castling = Lan.parse(kiwipete, "e1g1");
+        assert (Move.kind(castling) == Move.KIND_CASTLING);
+        assert (San.toSan(kiwipete, castling).equals("O-O"));
+        assert (San.parse(kiwipete, "0-0") == castling);
+        assert (Lan.parse(kiwipete, "Nc3-b5") == San.parse(kiwipete, "Nb5"));
+        assert (Lan.parse(kiwipete, "e5xf7") == San.parse(kiwipete, "Nxf7"));
+        assert (Lan.parse(kiwipete, "e1e3") == Move.NONE);
+
+        BoardState start = BoardFactory.fromFen(BoardFactory.STARTING_FEN);
+        assert (Lan.parse(start, "Bg1-f3") == Move.NONE);
+        assert (Lan.parse(start, "Qe2-e4") == Move.NONE);
+        assert (Lan.parse(start, "Ng1-f3") == Lan.parse(start, "g1f3"));
+    }
+}
@@ -0,0 +1,57 @@
+package Tests;
+
+import Game.GameRules.BoardFactory;
+import Game.GameRules.ModernChessRules;
+import Game.GameRules.ParallelPerft;
+import Game.GameRules.Perft;
+import Game.GameRules.PerftPosition;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+public class PerftTest {
+
+    private static final int TEST_DEPTH = 3;
+
+    @Test
+    void referencePositions() {
+        for (PerftPosition position : PerftPosition.values()) {
+            Perft perft = new Perft(position.createBoard(), TEST_DEPTH);
+            for (int depth = 1; depth <= TEST_DEPTH; depth++) {
+                assert (perft.run(depth).nodes() == position.getExpectedNodes(depth)) : position + " depth " + depth;
+            }
+        }
+    }
+
+    @Test
+    void divideMatchesTotal() {
+        Perft perft = new Perft(PerftPosition.KIWIPETE.createBoard(), 2);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        Perft.PerftResult result = perft.divide(2, new PrintStream(output));
+        assert (result.nodes() == PerftPosition.KIWIPETE.getExpectedNodes(2));
+        assert (output.toString().contains("e1g1: 43"));
+        assert (output.toString().contains("Moves: 48"));
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        for (PerftPosition position : PerftPosition.values()) {
+            ParallelPerft perft = new ParallelPerft(position.createBoard());
+            assert (perft.run(4).nodes() == position.getExpectedNodes(4)) : position;
+        }
+    }
+
+    @Test
+    void perftFromGameInProgress() {
+        ModernChessRules game = new ModernChessRules(BoardFactory.createDefaultBoard());
+        game.move(new Position(2, 5), new Position(4, 5));
+
+        Perft perft = new Perft(game.copyBoardState(), 2);
+        assert (perft.run(1).nodes() == 20);
+        assert (perft.run(2).nodes() == 600);
+        assert (perft.run(0).nodes() == 1);
+    }
+}
@@ -0,0 +1,126 @@
+package Tests;
+
+import Game.GameRules.Bitboard;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Pieces.PieceInfo.PieceType;
+import PGN.PgnGame;
+import PGN.PgnReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+public class PgnReaderTest {
+
+    private static final String OPERA_GAME = """
+            [Event "Paris"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 4. dxe5 Bxf3 5. Qxf3 dxe5 6. Bc4 Nf6 7. Qb3 Qe7
+            8. Nc3 c6 9. Bg5 b5 10. Nxb5 cxb5 11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7
+            14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ Nxb8 17. Rd8# 1-0
+
+            """;
+
+    private static PgnReader reader(String pgn, int bufferSize) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))),
+                bufferSize);
+    }
+
+    @Test
+    void replaysGamesAcrossBufferRefills() throws IOException {
+        String pgn = OPERA_GAME + """
+                [Event "Annotated"]
+                [White "A \\"quoted\\" name"]
+                [Black "M\u00fcller"]
+
+                1. e4 {best by test (really)} e5 (1... c5 2. Nf3 (2. c3) d6) 2. Nf3 $1 Nc6!? ; line comment
+                % escaped line
+                3.Bb5 a6 4. Ba4 Nf6 5. 0-0 1/2-1/2
+
+                [FEN "4k3/P7/8/8/3p4/8/4P3/4K3 w - - 0 1"]
+                [SetUp "1"]
+
+                1. e4 dxe3 e.p. 2. a8=Q+ Kd7 3. Qb7+ *
+                """;
+        PgnReader reader = reader(pgn, 7);
+
+        PgnGame opera = reader.nextGame();
+        assert (opera.isLegal());
+        assert (opera.moves().length == 33);
+        assert (opera.result().equals("1-0"));
+        assert (opera.tag("Black").equals("Duke Karl / Count Isouard"));
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        assert (MoveGenerator.generateLegalMoves(opera.finalPosition(), moves, 0) == 0);
+        assert (MoveGenerator.isInCheck(opera.finalPosition(), PieceColor.BLACK));
+
+        PgnGame annotated = reader.nextGame();
+        assert (annotated.isLegal());
+        assert (annotated.moves().length == 9);
+        assert (annotated.result().equals("1/2-1/2"));
+        assert (annotated.tag("White").equals("A \"quoted\" name"));
+        assert (annotated.tag("Black").equals("M\u00fcller"));
+        assert (Move.kind(annotated.moves()[8]) == Move.KIND_CASTLING);
+
+        PgnGame setUp = reader.nextGame();
+        assert (setUp.isLegal());
+        assert (setUp.moves().length == 5);
+        assert (setUp.result().equals("*"));
+        assert (Move.kind(setUp.moves()[1]) == Move.KIND_EN_PASSANT);
+        assert (setUp.finalPosition().getPieceType(Bitboard.square(7, 2)) == PieceType.QUEEN);
+
+        assert (reader.nextGame() == null);
+        assert (reader.getBytesRead() == pgn.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void reportsTheFirstIllegalPly() throws IOException {
+        PgnReader reader = reader("1. e4 e5 2. Ke3 Nf6 3. Nf3 0-1\n"
+                + "[FEN \"not a position\"]\n\n1. e4 *\n"
+                + "[FEN \"4k3/8/8/8/8/8/8/8 w - - 0 1\"]\n\n1. Kd7 *\n"
+                + "1. Nf3 Nf6 2. Ng5 Ng4 3. Nc3 Nc6 4. Ne4 *\n"
+                + "1. e4 e5 % only an escape in the first column\n2. Nf3 *\n", 16);
+
+        PgnGame kingWalk = reader.nextGame();
+        assert (!kingWalk.isLegal());
+        assert (kingWalk.illegalPly() == 3);
+        assert (kingWalk.illegalMove().equals("Ke3"));
+        assert (kingWalk.moves().length == 2);
+        assert (kingWalk.result().equals("0-1"));
+
+        PgnGame badSetUp = reader.nextGame();
+        assert (badSetUp.illegalPly() == 0);
+        assert (badSetUp.finalPosition() == null);
+        PgnGame noWhiteKing = reader.nextGame();
+        assert (noWhiteKing.illegalPly() == 0);
+        assert (noWhiteKing.illegalMove().equals("4k3/8/8/8/8/8/8/8 w - - 0 1"));
+
+        //both knights on c3 and g5 can reach e4, so the move is ambiguous
+        PgnGame ambiguous = reader.nextGame();
+        assert (ambiguous.illegalPly() == 7);
+        assert (ambiguous.illegalMove().equals("Ne4"));
+        PgnGame strayEscape = reader.nextGame();
+        assert (strayEscape.illegalPly() == 3);
+        assert (strayEscape.illegalMove().equals("%"));
+        assert (strayEscape.moves().length == 2);
+        assert (reader.nextGame() == null);
+    }
+
+    @Test
+    void streamsManyGames() throws IOException {
+        PgnReader reader = reader(OPERA_GAME.repeat(500), PgnReader.DEFAULT_BUFFER_SIZE);
+        int games = 0;
+        for (PgnGame game = reader.nextGame(); game != null; game = reader.nextGame()) {
+            assert (game.isLegal() && game.moves().length == 33);
+            assert (game.finalPosition().getZobristKey() == game.finalPosition().computeZobristKey());
+            games++;
+        }
+        assert (games == 500);
+    }
+}
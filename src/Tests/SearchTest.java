@@ -0,0 +1,287 @@
+package Tests;
+
+import Game.Engine.ParallelSearch;
+import Game.Engine.Search;
+import Game.Engine.SearchController;
+import Game.Engine.SearchLimits;
+import Game.Engine.SearchResult;
+import Game.Engine.StaticExchange;
+import Game.Engine.TranspositionTable;
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.GameRules.PerftPosition;
+import Game.Pieces.*;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchTest {
+
+    private static BoardState backRankMate() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 7)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 1)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 7)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 6)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 7)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(7, 8)));
+        return new BoardState(board);
+    }
+
+    private static boolean isLegalLine(BoardState position, int[] line) {
+        BoardState board = new BoardState(position);
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        for (int move : line) {
+            int count = MoveGenerator.generateLegalMoves(board, moves, 0);
+            boolean found = false;
+            for (int i = 0; i < count && !found; i++) {
+                found = moves[i] == move;
+            }
+            if (!found) {
+                return false;
+            }
+            board.makeMove(move);
+        }
+        return true;
+    }
+
+    @Test
+    void findsMateInOne() {
+        SearchResult result = new Search(backRankMate()).search(SearchLimits.depth(4));
+
+        assert (result.bestMove() == Move.of(Bitboard.square(1, 1), Bitboard.square(8, 1)));
+        assert (result.isMateScore());
+        assert (result.mateInMoves() == 1);
+
+        //the quiescence search may not stand pat in check, so one ply sees the quiet mate at the leaf
+        SearchResult leaf = new Search(backRankMate()).search(SearchLimits.depth(1));
+        assert (leaf.bestMove() == result.bestMove() && leaf.mateInMoves() == 1);
+    }
+
+    @Test
+    void mateAndSearchMoveLimits() throws InterruptedException {
+        int rookMate = Move.of(Bitboard.square(1, 1), Bitboard.square(8, 1));
+        SearchResult mate = new Search(backRankMate()).search(SearchLimits.mate(1));
+        assert (mate.depth() == 1 && mate.bestMove() == rookMate && mate.mateInMoves() == 1);
+        SearchController controller = new SearchController();
+        controller.start(SearchLimits.mate(3), PieceColor.WHITE);
+        assert (controller.getMaxDepth() == 5);
+
+        int rookLift = Move.of(Bitboard.square(1, 1), Bitboard.square(2, 1));
+        SearchLimits onlyLift = SearchLimits.depth(3).withSearchMoves(rookLift);
+        assert (new Search(backRankMate()).search(onlyLift).bestMove() == rookLift);
+        //none of the given moves is legal, so all of them are searched
+        SearchLimits noneLegal = SearchLimits.depth(3).withSearchMoves(Move.of(0, 63));
+        assert (new Search(backRankMate()).search(noneLegal).bestMove() == rookMate);
+
+        //a ponder search runs without a clock until ponderhit starts one
+        Search ponder = new Search(PerftPosition.KIWIPETE.createBoard());
+        Thread thread = new Thread(() -> ponder.search(SearchLimits.infinite()));
+        thread.start();
+        thread.join(100);
+        assert (thread.isAlive());
+        ponder.ponderhit(SearchLimits.time(20));
+        thread.join(1_000);
+        assert (!thread.isAlive());
+    }
+
+    @Test
+    void depthLimitAndPrincipalVariation() {
+        BoardState position = new BoardState(BoardFactory.createDefaultBoard());
+        List<SearchResult> iterations = new ArrayList<>();
+        Search search = new Search(position);
+        search.setListener(iterations::add);
+        SearchResult result = search.search(SearchLimits.depth(4));
+
+        assert (result.depth() == 4);
+        assert (iterations.size() == 4);
+        assert (result.principalVariation().length == 4);
+        assert (isLegalLine(position, result.principalVariation()));
+        assert (result.nodes() > 0);
+    }
+
+    @Test
+    void nodeAndTimeLimits() {
+        BoardState position = new BoardState(BoardFactory.createDefaultBoard());
+
+        SearchResult byNodes = new Search(position).search(SearchLimits.nodes(20_000));
+        assert (byNodes.nodes() <= 20_000);
+        assert (byNodes.bestMove() != Move.NONE);
+
+        long start = System.nanoTime();
+        SearchResult byTime = new Search(position).search(SearchLimits.time(200));
+        assert ((System.nanoTime() - start) / 1_000_000 < 1_000);
+        assert (byTime.bestMove() != Move.NONE);
+        assert (isLegalLine(position, byTime.principalVariation()));
+    }
+
+    @Test
+    void searchDoesNotAllocatePerNode() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Search search = new Search(new BoardState(BoardFactory.createDefaultBoard()));
+        search.search(SearchLimits.depth(3));
+
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        SearchResult result = search.search(SearchLimits.depth(5));
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assert (result.nodes() > 10_000);
+        assert (allocated < 64 * 1024);
+    }
+
+    @Test
+    void parallelSearchSharesTableAndCombinesWorkers() {
+        try (ParallelSearch mate = new ParallelSearch(backRankMate(), new TranspositionTable(4), 3)) {
+            SearchResult result = mate.search(SearchLimits.depth(4));
+            assert (result.bestMove() == Move.of(Bitboard.square(1, 1), Bitboard.square(8, 1)));
+            assert (result.mateInMoves() == 1);
+        }
+
+        BoardState position = new BoardState(BoardFactory.createDefaultBoard());
+        try (ParallelSearch search = new ParallelSearch(position, new TranspositionTable(4), 2)) {
+            List<SearchResult> iterations = new ArrayList<>();
+            search.setListener(iterations::add);
+            SearchResult first = search.search(SearchLimits.depth(4));
+            assert (first.depth() >= 4);
+            assert (isLegalLine(position, first.principalVariation()));
+            assert (first.nodes() >= iterations.get(iterations.size() - 1).nodes());
+
+            //workers are reused, a second search must not be cut short by the stop of the first
+            SearchResult second = search.search(SearchLimits.depth(5));
+            assert (second.depth() >= 5);
+            assert (isLegalLine(position, second.principalVariation()));
+        }
+
+        //the node limit covers all workers together
+        try (ParallelSearch search = new ParallelSearch(PerftPosition.KIWIPETE.createBoard(),
+                new TranspositionTable(4), 4)) {
+            SearchResult limited = search.search(SearchLimits.nodes(20_000));
+            assert (limited.nodes() <= 20_000 + 4 * SearchController.CLOCK_CHECK_INTERVAL);
+            assert (limited.principalVariation().length > 0);
+        }
+    }
+
+    @Test
+    void parallelSearchIsReusedAcrossPositions() {
+        try (ParallelSearch search = new ParallelSearch(PerftPosition.KIWIPETE.createBoard(),
+                new TranspositionTable(4), 2)) {
+            search.setPosition(backRankMate());
+            SearchResult mate = search.search(SearchLimits.depth(4));
+            assert (mate.bestMove() == Move.of(Bitboard.square(1, 1), Bitboard.square(8, 1)));
+            assert (mate.mateInMoves() == 1);
+
+            search.stop(); //arrives after the search ended and must not cut the next one short
+            search.setPosition(new BoardState(BoardFactory.createDefaultBoard()));
+            SearchResult opening = search.search(SearchLimits.depth(4));
+            assert (opening.depth() == 4 && isLegalLine(new BoardState(BoardFactory.createDefaultBoard()),
+                    opening.principalVariation()));
+        }
+    }
+
+    @Test
+    void staticExchangeCountsRecapturesAndXRays() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 1)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new Rook(PieceColor.WHITE, new Position(2, 5)));
+        board.add(new Knight(PieceColor.WHITE, new Position(3, 6)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 8)));
+        board.add(new Rook(PieceColor.BLACK, new Position(8, 5)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(5, 5)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(6, 4)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(4, 8)));
+        BoardState position = new BoardState(board);
+        StaticExchange exchange = new StaticExchange();
+
+        //Nxh4 wins a pawn outright
+        assert (exchange.evaluate(position, Move.capture(Bitboard.square(3, 6), Bitboard.square(4, 8))) == 100);
+        //Rxe5 dxe5 gives up the rook for a pawn, going on with Nxe5 Rxe5 Rxe5 only loses more
+        assert (exchange.evaluate(position, Move.capture(Bitboard.square(2, 5), Bitboard.square(5, 5))) == -300);
+        //Nxe5 dxe5 Rxe5 Rxe5 Rxe5: the rook on e1 joins from behind the one on e2
+        assert (exchange.evaluate(position, Move.capture(Bitboard.square(3, 6), Bitboard.square(5, 5))) == -120);
+    }
+
+    @Test
+    void quiescenceResolvesCapturesAtTheHorizon() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 1)));
+        board.add(new Queen(PieceColor.WHITE, new Position(1, 4)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 8)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(5, 4)));
+        board.add(new Pawn(PieceColor.BLACK, new Position(6, 5)));
+        BoardState position = new BoardState(board);
+
+        SearchResult result = new Search(position).search(SearchLimits.depth(1));
+
+        //a plain depth one search would grab the pawn on d5 and miss the recapture
+        assert (result.bestMove() != Move.capture(Bitboard.square(1, 4), Bitboard.square(5, 4)));
+        assert (result.score() > 500);
+        assert (result.quiescenceNodes() > 0);
+        assert (result.nodes() > result.quiescenceNodes());
+    }
+
+    @Test
+    void moveOrderingKeepsTheTreeNarrow() {
+        SearchResult result = new Search(PerftPosition.KIWIPETE.createBoard()).search(SearchLimits.depth(5));
+
+        //without ordering this search visits more than two million nodes
+        assert (result.nodes() < 500_000);
+        assert (result.cutoffs() > 0);
+        assert (result.firstMoveCutoffRate() > 0.8);
+        assert (result.effectiveBranchingFactor() < 12);
+    }
+
+    @Test
+    void drawsByRepetitionAndFiftyMoveRule() {
+        //black is a queen down but can repeat a position played before the search started
+        BoardState state = BoardFactory.fromFen("6nk/8/8/8/8/Q7/8/1K6 b - - 0 1");
+        state.makeMove(Move.of(Bitboard.square(8, 7), Bitboard.square(6, 6)));
+        state.makeMove(Move.of(Bitboard.square(1, 2), Bitboard.square(2, 2)));
+        state.makeMove(Move.of(Bitboard.square(6, 6), Bitboard.square(8, 7)));
+        state.makeMove(Move.of(Bitboard.square(2, 2), Bitboard.square(1, 2)));
+        assert (new Search(state).search(SearchLimits.depth(3)).score() == 0);
+
+        //every white move reaches the hundredth ply without a capture or pawn move
+        BoardState fiftyMoves = BoardFactory.fromFen("7k/8/8/8/8/8/8/KQ6 w - - 99 80");
+        assert (new Search(fiftyMoves).search(SearchLimits.depth(3)).score() == 0);
+        BoardState fresh = BoardFactory.fromFen("7k/8/8/8/8/8/8/KQ6 w - - 0 80");
+        assert (new Search(fresh).search(SearchLimits.depth(3)).score() > 500);
+    }
+
+    @Test
+    void clockBudgets() {
+        SearchController controller = new SearchController();
+
+        controller.start(SearchLimits.clock(60_030, 1_000, 0, 0, SearchLimits.NO_LIMIT), PieceColor.WHITE);
+        assert (controller.getSoftBudgetMillis() == 2_000);
+        assert (controller.getHardBudgetMillis() == 8_000);
+
+        controller.start(SearchLimits.clock(60_030, 1_030, 0, 2_000, 10), PieceColor.BLACK);
+        assert (controller.getSoftBudgetMillis() == 1_000);
+        assert (controller.getHardBudgetMillis() == 1_000);
+
+        controller.start(SearchLimits.time(500), PieceColor.WHITE);
+        assert (controller.getSoftBudgetMillis() == Long.MAX_VALUE);
+        assert (controller.getHardBudgetMillis() == 500);
+        assert (controller.shouldStartNextIteration(Move.of(0, 8)));
+    }
+
+    @Test
+    void clockSearchStaysWithinHardBudget() {
+        BoardState position = PerftPosition.KIWIPETE.createBoard();
+        long start = System.nanoTime();
+        SearchResult result = new Search(position).search(SearchLimits.clock(630, 630, 0, 0, SearchLimits.NO_LIMIT));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        //600 ms after the overhead, a hard budget of four times the 20 ms soft budget
+        assert (elapsedMillis < 80 + 120);
+        assert (result.bestMove() != Move.NONE);
+        assert (isLegalLine(position, result.principalVariation()));
+    }
+}
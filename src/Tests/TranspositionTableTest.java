@@ -0,0 +1,85 @@
+package Tests;
+
+import Game.Engine.Search;
+import Game.Engine.SearchLimits;
+import Game.Engine.SearchResult;
+import Game.Engine.TranspositionTable;
+import Game.GameRules.Bitboard;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.PerftPosition;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+    @Test
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.capture(Bitboard.square(2, 5), Bitboard.square(3, 6));
+        table.store(0x1234_5678_9ABC_DEF0L, move, -29_990, 12, TranspositionTable.BOUND_LOWER);
+
+        long entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        assert (entry != TranspositionTable.MISS);
+        assert (TranspositionTable.move(entry) == move);
+        assert (TranspositionTable.score(entry) == -29_990);
+        assert (TranspositionTable.depth(entry) == 12);
+        assert (TranspositionTable.bound(entry) == TranspositionTable.BOUND_LOWER);
+        assert (table.probe(0x1234_5678_9ABC_DEF1L) == TranspositionTable.MISS);
+
+        table.store(0x1234_5678_9ABC_DEF0L, Move.NONE, 15, 3, TranspositionTable.BOUND_UPPER);
+        entry = table.probe(0x1234_5678_9ABC_DEF0L);
+        assert (TranspositionTable.move(entry) == move);
+        assert (TranspositionTable.score(entry) == 15);
+    }
+
+    @Test
+    void olderGenerationsAreReplacedFirst() {
+        TranspositionTable table = new TranspositionTable(1);
+        long bucketStride = table.getEntryCount() / 4; //keys that differ by this share a bucket
+        for (int i = 0; i < 4; i++) {
+            table.store(1 + i * bucketStride, Move.NONE, i, 20, TranspositionTable.BOUND_EXACT);
+        }
+        for (int i = 0; i < 3; i++) {
+            table.newSearch();
+        }
+        table.store(1 + 3 * bucketStride, Move.NONE, 3, 20, TranspositionTable.BOUND_EXACT); //refreshed
+        table.store(1 + 4 * bucketStride, Move.NONE, 4, 1, TranspositionTable.BOUND_EXACT);
+
+        assert (table.probe(1 + 4 * bucketStride) != TranspositionTable.MISS);
+        assert (table.probe(1 + 3 * bucketStride) != TranspositionTable.MISS);
+        int remaining = 0;
+        for (int i = 0; i < 3; i++) {
+            remaining += table.probe(1 + i * bucketStride) != TranspositionTable.MISS ? 1 : 0;
+        }
+        assert (remaining == 2);
+    }
+
+    @Test
+    void hashfullClearAndResize() {
+        TranspositionTable table = new TranspositionTable(1);
+        assert (table.getEntryCount() == (1 << 20) / 16);
+        for (long key = 0; key < table.getEntryCount(); key++) {
+            table.store(key * 0x9E37_79B9_7F4A_7C15L + 1, Move.NONE, 0, 1, TranspositionTable.BOUND_EXACT);
+        }
+        assert (table.hashfull() > 500);
+
+        table.clear();
+        assert (table.hashfull() == 0);
+        assert (table.probe(1) == TranspositionTable.MISS);
+
+        assert (table.resize(6) == 4);
+        assert (table.getEntryCount() == (4 << 20) / 16);
+        assert (Integer.bitCount(TranspositionTable.maxMegabytes()) == 1);
+    }
+
+    @Test
+    void sharedTableSpeedsUpRepeatedSearch() {
+        BoardState position = PerftPosition.KIWIPETE.createBoard();
+        TranspositionTable table = new TranspositionTable(8);
+        SearchResult first = new Search(position, table).search(SearchLimits.depth(4));
+        SearchResult second = new Search(position, table).search(SearchLimits.depth(4));
+
+        assert (second.nodes() < first.nodes());
+        assert (second.bestMove() != Move.NONE);
+    }
+}
@@ -0,0 +1,171 @@
+package Tests;
+
+import UCI.UciEngine;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class UciEngineTest {
+
+    //collects complete output lines so the test can wait for a specific response
+    private static class LineCollector extends ByteArrayOutputStream {
+
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+
+        @Override
+        public synchronized void write(int b) {
+            if (b == '\n') {
+                lines.add(toString(StandardCharsets.UTF_8).trim());
+                reset();
+            } else {
+                super.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        String awaitLineStartingWith(String prefix, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            do {
+                for (String line : lines) {
+                    if (line.startsWith(prefix)) {
+                        return line;
+                    }
+                }
+                Thread.sleep(1);
+            } while (System.currentTimeMillis() < deadline);
+            return null;
+        }
+    }
+
+    private static Thread startEngine(PipedOutputStream commands, LineCollector output) throws IOException {
+        UciEngine engine = new UciEngine(new PipedInputStream(commands), new PrintStream(output, true));
+        Thread thread = new Thread(() -> {
+            try {
+                engine.run();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void send(PipedOutputStream commands, String command) throws IOException {
+        commands.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+        commands.flush();
+    }
+
+    @Test
+    void handshakeAndFixedDepthSearch() throws Exception {
+        PipedOutputStream commands = new PipedOutputStream();
+        LineCollector output = new LineCollector();
+        Thread engine = startEngine(commands, output);
+
+        send(commands, "uci");
+        assert (output.awaitLineStartingWith("uciok", 1_000) != null);
+        send(commands, "setoption name Hash value 4");
+        send(commands, "isready");
+        assert (output.awaitLineStartingWith("readyok", 1_000) != null);
+
+        send(commands, "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        send(commands, "go depth 4");
+        assert ("bestmove a1a8".equals(output.awaitLineStartingWith("bestmove", 5_000)));
+        assert (output.awaitLineStartingWith("info depth 1 ", 0) != null);
+
+        send(commands, "quit");
+        engine.join(1_000);
+        assert (!engine.isAlive());
+    }
+
+    @Test
+    void mateSearchMovesAndPonder() throws Exception {
+        PipedOutputStream commands = new PipedOutputStream();
+        LineCollector output = new LineCollector();
+        Thread engine = startEngine(commands, output);
+
+        send(commands, "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        send(commands, "go mate 1");
+        assert ("bestmove a1a8".equals(output.awaitLineStartingWith("bestmove", 5_000)));
+        assert (output.awaitLineStartingWith("info depth 1 score mate 1 ", 0) != null);
+        output.lines.clear();
+        send(commands, "go depth 3 searchmoves g1f1 g1h1");
+        String restricted = output.awaitLineStartingWith("bestmove", 5_000);
+        assert (restricted != null && restricted.matches("bestmove g1[fh]1.*"));
+
+        //a ponder search that runs out of depth still waits for ponderhit
+        output.lines.clear();
+        send(commands, "position startpos");
+        send(commands, "go ponder depth 2 movetime 20");
+        assert (output.awaitLineStartingWith("info depth 2 ", 5_000) != null);
+        assert (output.awaitLineStartingWith("bestmove", 100) == null);
+        send(commands, "ponderhit");
+        assert (output.awaitLineStartingWith("bestmove", 1_000) != null);
+        //while pondering the move time does not run
+        output.lines.clear();
+        send(commands, "go ponder movetime 20");
+        assert (output.awaitLineStartingWith("bestmove", 300) == null);
+        send(commands, "ponderhit");
+        assert (output.awaitLineStartingWith("bestmove", 1_000) != null);
+        assert (output.awaitLineStartingWith("info string", 0) == null);
+
+        send(commands, "quit");
+        engine.join(1_000);
+        assert (!engine.isAlive());
+    }
+
+    @Test
+    void invalidPositionsKeepThePreviousOne() throws Exception {
+        PipedOutputStream commands = new PipedOutputStream();
+        LineCollector output = new LineCollector();
+        Thread engine = startEngine(commands, output);
+
+        send(commands, "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        send(commands, "position fen 4k3/8/8/8/8/8/8/8 w - - 0 1");
+        assert (output.awaitLineStartingWith("info string invalid position", 1_000) != null);
+        output.lines.clear();
+        send(commands, "position fen 4k3/8/8/8/8/8/8/4RK2 w - - 0 1");
+        assert (output.awaitLineStartingWith("info string invalid position", 1_000) != null);
+        send(commands, "go depth 2");
+        assert ("bestmove a1a8".equals(output.awaitLineStartingWith("bestmove", 5_000)));
+
+        send(commands, "quit");
+        engine.join(1_000);
+        assert (!engine.isAlive());
+    }
+
+    @Test
+    void stopEndsInfiniteSearchPromptly() throws Exception {
+        PipedOutputStream commands = new PipedOutputStream();
+        LineCollector output = new LineCollector();
+        Thread engine = startEngine(commands, output);
+
+        send(commands, "position startpos moves e2e4 e7e5 g1f3");
+        send(commands, "go infinite");
+        assert (output.awaitLineStartingWith("info depth 3 ", 5_000) != null);
+        send(commands, "isready");
+        assert (output.awaitLineStartingWith("readyok", 100) != null); //answered during the search
+        assert (output.awaitLineStartingWith("bestmove", 0) == null);
+
+        long stopSent = System.nanoTime();
+        send(commands, "stop");
+        String bestMove = output.awaitLineStartingWith("bestmove", 1_000);
+        long stopMillis = (System.nanoTime() - stopSent) / 1_000_000;
+        assert (bestMove != null);
+        assert (stopMillis < 100);
+
+        send(commands, "quit");
+        engine.join(1_000);
+    }
+}
@@ -0,0 +1,104 @@
+package Tests;
+
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.ChessRules;
+import Game.GameRules.ModernChessRules;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.GameRules.PerftPosition;
+import Game.Pieces.*;
+import Game.Pieces.PieceInfo.PieceColor;
+import Game.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ZobristTest {
+
+    @Test
+    void transpositionsShareKey() {
+        ChessRules first = new ModernChessRules(BoardFactory.createDefaultBoard());
+        first.move(new Position(1, 2), new Position(3, 3));
+        first.move(new Position(8, 2), new Position(6, 3));
+        first.move(new Position(1, 7), new Position(3, 6));
+
+        ChessRules second = new ModernChessRules(BoardFactory.createDefaultBoard());
+        second.move(new Position(1, 7), new Position(3, 6));
+        second.move(new Position(8, 2), new Position(6, 3));
+        second.move(new Position(1, 2), new Position(3, 3));
+
+        assert (first.getPositionKey() == second.getPositionKey());
+    }
+
+    @Test
+    void sideToMoveAndEnPassantChangeKey() {
+        ChessRules knights = new ModernChessRules(BoardFactory.createDefaultBoard());
+        long initialKey = knights.getPositionKey();
+        knights.move(new Position(1, 7), new Position(3, 6));
+        knights.move(new Position(8, 7), new Position(6, 6));
+        knights.move(new Position(3, 6), new Position(1, 7));
+        assert (knights.getPositionKey() != initialKey);
+        knights.move(new Position(6, 6), new Position(8, 7));
+        assert (knights.getPositionKey() == initialKey);
+
+        ChessRules doublePush = new ModernChessRules(BoardFactory.createDefaultBoard());
+        doublePush.move(new Position(2, 5), new Position(4, 5));
+        ChessRules twoSingleSteps = new ModernChessRules(BoardFactory.createDefaultBoard());
+        twoSingleSteps.move(new Position(2, 5), new Position(3, 5));
+        twoSingleSteps.move(new Position(8, 7), new Position(6, 6));
+        twoSingleSteps.move(new Position(3, 5), new Position(4, 5));
+        twoSingleSteps.move(new Position(6, 6), new Position(8, 7));
+        assert (doublePush.getPositionKey() != twoSingleSteps.getPositionKey());
+    }
+
+    @Test
+    void castlingRightsChangeKey() {
+        List<Piece> board = new ArrayList<>();
+        board.add(new King(PieceColor.WHITE, new Position(1, 5)));
+        board.add(new Rook(PieceColor.WHITE, new Position(1, 8)));
+        board.add(new King(PieceColor.BLACK, new Position(8, 5)));
+        ChessRules testBoard = new ModernChessRules(board);
+        long initialKey = testBoard.getPositionKey();
+
+        testBoard.move(new Position(1, 8), new Position(2, 8));
+        testBoard.move(new Position(8, 5), new Position(8, 4));
+        testBoard.move(new Position(2, 8), new Position(1, 8));
+        testBoard.move(new Position(8, 4), new Position(8, 5));
+        assert (testBoard.getPositionKey() != initialKey);
+    }
+
+    @Test
+    void incrementalKeyMatchesRecomputedKey() {
+        for (PerftPosition position : PerftPosition.values()) {
+            BoardState state = position.createBoard();
+            int[] moves = new int[Move.MAX_LEGAL_MOVES];
+            for (int ply = 0; ply < 40; ply++) {
+                int count = MoveGenerator.generateLegalMoves(state, moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                state.makeMove(moves[(ply * 7) % count]);
+                assert (state.getZobristKey() == state.computeZobristKey()) : position + " ply " + ply;
+            }
+        }
+    }
+
+    @Test
+    void legacyMovesKeepKeyInSync() {
+        ModernChessRules game = new ModernChessRules(BoardFactory.createDefaultBoard());
+        Position[][] moves = {
+                {new Position(2, 5), new Position(4, 5)}, {new Position(7, 4), new Position(5, 4)},
+                {new Position(4, 5), new Position(5, 5)}, {new Position(7, 6), new Position(5, 6)},
+                {new Position(5, 5), new Position(6, 6)}, {new Position(8, 7), new Position(6, 6)},
+                {new Position(1, 7), new Position(3, 6)}, {new Position(7, 5), new Position(6, 5)},
+                {new Position(1, 6), new Position(2, 5)}, {new Position(8, 6), new Position(7, 5)},
+                {new Position(1, 5), new Position(1, 7)}, {new Position(8, 5), new Position(8, 7)}};
+        for (Position[] move : moves) {
+            game.move(move[0], move[1]);
+            BoardState copy = game.copyBoardState();
+            assert (copy.getZobristKey() == copy.computeZobristKey());
+        }
+    }
+}
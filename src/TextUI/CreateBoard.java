@@ -75,7 +75,8 @@ public class CreateBoard {
             }
             case GAME_START -> {
                 message += "Input format: <moving piece position> <destination position>" +
-                        "\nExample: 2e 4e (moves pawn on 2e to 4e)";
+                        "\nExample: 2e 4e (moves pawn on 2e to 4e)" +
+                        "\nMoves in algebraic notation work as well: e4, Nf3, exd5, O-O, e7e8=Q or e7e8q";
             }
         }
         System.out.println(message);
@@ -1,9 +1,13 @@
 package TextUI;
 
 import Game.*;
+import Game.GameRules.BoardState;
 import Game.GameRules.ChessRules;
 import Game.GameRules.BoardFactory;
 import Game.GameRules.ModernChessRules;
+import Game.GameRules.Move;
+import Game.Notation.Lan;
+import Game.Notation.San;
 import Game.Pieces.PieceInfo.PieceType;
 
 import java.util.Scanner;
@@ -13,7 +17,16 @@ public class TextChessEngine {
     private ChessRules board;
 
     public void startGame() {
-        board = new ModernChessRules(BoardFactory.createDefaultBoard());
+        play(new ModernChessRules(BoardFactory.createDefaultBoard()));
+    }
+
+    //throws IllegalArgumentException for a FEN the rules cannot play from
+    public void startGame(String fen) {
+        play(new ModernChessRules(BoardFactory.fromFen(fen)));
+    }
+
+    private void play(ChessRules rules) {
+        board = rules;
         Scanner scanner = new Scanner(System.in);
         String stringInput;
         MoveResult m = MoveResult.GAME_START;
@@ -27,7 +40,8 @@ public class TextChessEngine {
     }
 
     private MoveResult processInput(String input) {
-        input = input.toLowerCase().trim();
+        String move = input.trim();
+        input = move.toLowerCase();
         String[] splits = input.split(" ");
         if (splits.length > 2) {
             return MoveResult.INVALID_STRING;
@@ -58,13 +72,25 @@ public class TextChessEngine {
                 case "rook", "r" -> p = PieceType.ROOK;
                 case "bishop", "b" -> p = PieceType.BISHOP;
                 default -> {
-                    return MoveResult.INVALID_STRING;
+                    return processNotation(move);
                 }
             }
             return board.promote(p);
         }
     }
 
+    //a single move in long or standard algebraic notation, such as e7e8q, Ng1-f3, Nbd7 or exd8=Q+
+    private MoveResult processNotation(String input) {
+        int[] moves = new int[Move.MAX_LEGAL_MOVES];
+        int moveCount = board.generateLegalMoves(moves);
+        BoardState state = board.copyBoardState();
+        int move = Lan.parse(state, moves, moveCount, input);
+        if (move == Move.NONE) {
+            move = San.parse(state, moves, moveCount, input);
+        }
+        return move == Move.NONE ? MoveResult.INVALID_STRING : board.move(move);
+    }
+
     private void drawGame(MoveResult lastMoveResult) {
         System.out.println("------------------------------");
         CreateBoard.printHeader(board.getCurrentTurn());
@@ -0,0 +1,363 @@
+package UCI;
+
+import Game.Engine.ParallelSearch;
+import Game.Engine.SearchLimits;
+import Game.Engine.SearchResult;
+import Game.Engine.TranspositionTable;
+import Game.GameRules.BoardFactory;
+import Game.GameRules.BoardState;
+import Game.GameRules.Move;
+import Game.GameRules.MoveGenerator;
+import Game.Notation.Lan;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/*
+ * Universal Chess Interface front-end. Commands are read on their own thread so stop and isready are answered
+ * while a search runs; searches and option changes are queued and run in order on the thread that called run.
+ */
+public class UciEngine {
+
+    private static final String NAME = "Chess";
+    private static final String AUTHOR = "RafaelMoser";
+    private static final int DEFAULT_HASH_MEGABYTES = 16;
+    private static final int MAX_HASH_MEGABYTES = Math.min(TranspositionTable.maxMegabytes(), 65_536);
+    private static final int MAX_THREADS = 256;
+    private static final Runnable QUIT = () -> {
+    };
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final BlockingQueue<Runnable> jobs = new LinkedBlockingQueue<>();
+    private final TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+    private BoardState position = new BoardState(BoardFactory.createDefaultBoard());
+    private int threads = 1;
+    private ParallelSearch parallelSearch; //built on the first go, only used on the job thread
+    private volatile SearchJob currentSearch;
+
+    public UciEngine(InputStream input, PrintStream output) {
+        this.input = new BufferedReader(new InputStreamReader(input));
+        this.output = output;
+    }
+
+    //returns after quit or the end of the input, once the last search has finished
+    public void run() throws InterruptedException {
+        Thread reader = new Thread(this::readCommands, "uci-reader");
+        reader.setDaemon(true);
+        reader.start();
+        for (Runnable job = jobs.take(); job != QUIT; job = jobs.take()) {
+            try {
+                job.run();
+            } catch (RuntimeException | OutOfMemoryError e) { //a failed job must not take the engine down
+                output.println("info string " + e);
+            }
+        }
+        closeSearch();
+    }
+
+    private void readCommands() {
+        try {
+            for (String line = input.readLine(); line != null; line = input.readLine()) {
+                try {
+                    if (!handleCommand(line.trim())) {
+                        break;
+                    }
+                } catch (RuntimeException e) { //a malformed command must not take the reader down
+                    output.println("info string cannot handle " + line + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            output.println("info string " + e.getMessage());
+        }
+        stopSearch();
+        jobs.add(QUIT);
+    }
+
+    //returns false on quit
+    private boolean handleCommand(String line) {
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> {
+                output.println("id name " + NAME);
+                output.println("id author " + AUTHOR);
+                output.println("option name Hash type spin default " + DEFAULT_HASH_MEGABYTES + " min 1 max "
+                        + MAX_HASH_MEGABYTES);
+                output.println("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                output.println("option name Ponder type check default false");
+                output.println("uciok");
+            }
+            case "isready" -> {
+                if (currentSearch != null) {
+                    output.println("readyok");
+                } else {
+                    jobs.add(() -> output.println("readyok")); //answered once queued option changes are applied
+                }
+            }
+            case "setoption" -> jobs.add(() -> setOption(tokens));
+            case "ucinewgame" -> jobs.add(table::clear);
+            case "position" -> setPosition(tokens);
+            case "go" -> startSearch(tokens);
+            case "stop" -> stopSearch();
+            case "ponderhit" -> {
+                SearchJob job = currentSearch;
+                if (job != null) {
+                    job.ponderhit();
+                }
+            }
+            case "quit" -> {
+                return false;
+            }
+            default -> {
+                if (!tokens[0].isEmpty()) {
+                    output.println("info string unknown command " + tokens[0]);
+                }
+            }
+        }
+        return true;
+    }
+
+    //setoption name <name> value <value>
+    private void setOption(String[] tokens) {
+        String name = tokenAfter(tokens, "name");
+        String value = tokenAfter(tokens, "value");
+        if (name == null || value == null || name.equalsIgnoreCase("ponder")) {
+            return; //the GUI decides when to ponder, the search itself needs no setting for it
+        }
+        try {
+            int number = Integer.parseInt(value);
+            switch (name.toLowerCase()) {
+                case "hash" -> resizeTable(Math.min(Math.max(number, 1), MAX_HASH_MEGABYTES));
+                case "threads" -> {
+                    threads = Math.min(Math.max(number, 1), MAX_THREADS);
+                    closeSearch(); //the next go starts the new number of workers
+                }
+                default -> output.println("info string unknown option " + name);
+            }
+        } catch (NumberFormatException e) {
+            output.println("info string invalid value " + value + " for " + name);
+        }
+    }
+
+    //the workers and their threads are kept from one go to the next, along with their move ordering and pawn
+    //tables
+    private ParallelSearch searchFrom(BoardState root) {
+        if (parallelSearch == null) {
+            parallelSearch = new ParallelSearch(root, table, threads);
+            parallelSearch.setListener(iteration -> output.println(formatInfo(iteration)));
+        } else {
+            parallelSearch.setPosition(root);
+        }
+        return parallelSearch;
+    }
+
+    private void closeSearch() {
+        if (parallelSearch != null) {
+            parallelSearch.close();
+            parallelSearch = null;
+        }
+    }
+
+    private void resizeTable(int megabytes) {
+        int reserved = table.resize(megabytes);
+        if (reserved < Integer.highestOneBit(megabytes)) {
+            output.println("info string could only reserve " + reserved + " MB for the hash table,"
+                    + " raise -XX:MaxDirectMemorySize for more");
+        }
+    }
+
+    //position startpos|fen <fields> [moves <move>...]
+    private void setPosition(String[] tokens) {
+        int movesIndex = indexOf(tokens, "moves");
+        int end = movesIndex < 0 ? tokens.length : movesIndex;
+        BoardState board;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            board = new BoardState(BoardFactory.createDefaultBoard());
+        } else if (tokens.length > 2 && tokens[1].equals("fen")) {
+            try {
+                board = BoardFactory.fromFen(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+            } catch (IllegalArgumentException e) {
+                output.println("info string invalid position: " + e.getMessage());
+                return;
+            }
+        } else {
+            output.println("info string expected startpos or fen");
+            return;
+        }
+        for (int i = end + 1; movesIndex >= 0 && i < tokens.length; i++) {
+            int move = Lan.parse(board, tokens[i]);
+            if (move == Move.NONE) {
+                output.println("info string illegal move " + tokens[i]);
+                return;
+            }
+            board.makeMove(move);
+        }
+        //a position where the king can be taken has no legal continuation to search
+        if (MoveGenerator.isInCheck(board, board.getCurrentTurn().getOppositeColor())) {
+            output.println("info string invalid position: the side not to move is in check");
+            return;
+        }
+        position = board;
+    }
+
+    //go [searchmoves <move>...] [ponder] [wtime <x>] [btime <x>] [winc <x>] [binc <x>] [movestogo <x>]
+    //[depth <x>] [nodes <x>] [mate <x>] [movetime <x>] [infinite]
+    private void startSearch(String[] tokens) {
+        boolean infinite = indexOf(tokens, "infinite") >= 0;
+        boolean ponder = !infinite && indexOf(tokens, "ponder") >= 0;
+        SearchLimits limits = new SearchLimits(
+                (int) longAfter(tokens, "depth"), longAfter(tokens, "nodes"), longAfter(tokens, "movetime"),
+                longAfter(tokens, "wtime"), longAfter(tokens, "btime"), longAfter(tokens, "winc"),
+                longAfter(tokens, "binc"), (int) longAfter(tokens, "movestogo"), (int) longAfter(tokens, "mate"),
+                searchMoves(tokens));
+        SearchJob job = new SearchJob(position, infinite ? limits.withoutTime() : limits, infinite, ponder);
+        currentSearch = job;
+        jobs.add(job);
+    }
+
+    //the moves following searchmoves, up to the first token that is not a legal move
+    private int[] searchMoves(String[] tokens) {
+        int index = indexOf(tokens, "searchmoves");
+        if (index < 0) {
+            return new int[0];
+        }
+        BoardState board = new BoardState(position); //a queued search may still be copying the position
+        int[] legalMoves = new int[Move.MAX_LEGAL_MOVES];
+        int legalMoveCount = MoveGenerator.generateLegalMoves(board, legalMoves, 0);
+        int[] moves = new int[legalMoveCount];
+        int count = 0;
+        for (int i = index + 1; i < tokens.length && count < moves.length; i++) {
+            int move = Lan.parse(board, legalMoves, legalMoveCount, tokens[i]);
+            if (move == Move.NONE) {
+                break;
+            }
+            moves[count++] = move;
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private void stopSearch() {
+        SearchJob job = currentSearch;
+        if (job != null) {
+            job.stop();
+        }
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String tokenAfter(String[] tokens, String token) {
+        int index = indexOf(tokens, token);
+        return index >= 0 && index + 1 < tokens.length ? tokens[index + 1] : null;
+    }
+
+    private static long longAfter(String[] tokens, String token) {
+        String value = tokenAfter(tokens, token);
+        try {
+            return value == null ? SearchLimits.NO_LIMIT : Math.max(Long.parseLong(value), 0);
+        } catch (NumberFormatException e) {
+            return SearchLimits.NO_LIMIT;
+        }
+    }
+
+    private String formatInfo(SearchResult result) {
+        String score = result.isMateScore() ? "mate " + result.mateInMoves() : "cp " + result.score();
+        return "info depth " + result.depth() + " score " + score + " nodes " + result.nodes()
+                + " nps " + result.nodesPerSecond() + " time " + result.nanos() / 1_000_000
+                + " hashfull " + table.hashfull() + " pv " + result.principalVariationString();
+    }
+
+    private class SearchJob implements Runnable {
+
+        private final BoardState root;
+        private final SearchLimits limits;
+        private final boolean infinite;
+        private volatile ParallelSearch search;
+        private volatile boolean stopped;
+        private volatile boolean pondering;
+
+        SearchJob(BoardState root, SearchLimits limits, boolean infinite, boolean ponder) {
+            this.root = root;
+            this.limits = limits;
+            this.infinite = infinite;
+            pondering = ponder;
+        }
+
+        //either this or run sees the other's write, so a stop sent before the search started still ends it
+        synchronized void stop() {
+            stopped = true;
+            notifyAll();
+            ParallelSearch running = search;
+            if (running != null) {
+                running.stop();
+            }
+        }
+
+        //the opponent played the expected move, the ponder search goes on as a normal one with the clock
+        //running from now
+        synchronized void ponderhit() {
+            pondering = false;
+            notifyAll();
+            ParallelSearch running = search;
+            if (running != null) {
+                running.ponderhit(limits);
+            }
+        }
+
+        @Override
+        public void run() {
+            SearchResult result = null;
+            try {
+                ParallelSearch running = searchFrom(root);
+                search = running;
+                if (stopped) {
+                    running.stop();
+                }
+                result = running.search(pondering ? limits.withoutTime() : limits);
+            } catch (RuntimeException e) { //the GUI still waits for a bestmove
+                output.println("info string search failed: " + e);
+                closeSearch(); //the next go starts over with new workers
+            } finally {
+                //a stop that comes in later finds no search, one that just missed it is dropped by the next go
+                synchronized (this) {
+                    search = null;
+                }
+            }
+            awaitStop(); //bestmove may only follow stop or ponderhit, even when the search ran out of depth early
+            if (currentSearch == this) {
+                currentSearch = null;
+            }
+            if (result == null) {
+                output.println("bestmove 0000");
+                return;
+            }
+            output.println(formatInfo(result));
+            int[] line = result.principalVariation();
+            output.println("bestmove " + (line.length == 0 ? "0000" : Move.toString(line[0]))
+                    + (line.length > 1 ? " ponder " + Move.toString(line[1]) : ""));
+        }
+
+        private synchronized void awaitStop() {
+            while (!stopped && (infinite || pondering)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+import UCI.UciEngine;
+
+public class UciRunner {
+
+    //speaks UCI over standard input and output, for GUIs and match tooling. The hash table lives in direct
+    //memory, which the JVM caps at the heap size unless started with e.g. -XX:MaxDirectMemorySize=9g
+    public static void main(String[] args) throws InterruptedException {
+        new UciEngine(System.in, System.out).run();
+    }
+}